@@ -0,0 +1,54 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openwms.core.test.arch.ArchRuleSuite;
+
+import java.io.IOException;
+
+/**
+ * A Benchmarks is the main class of the benchmark jar. It accepts the same arguments as the JMH {@link Main} and runs the
+ * {@link RuleBenchmark} for all rules of {@link ArchRuleSuite#ofLibrary()}, so that new rules are benchmarked without
+ * maintaining a list of their names.
+ *
+ * @author Heiko Scherrer
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {}
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        var options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams() || options.shouldListProfilers()
+                || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        var builder = new OptionsBuilder().parent(options);
+        if (!options.getParameter("rule").hasValue()) {
+            builder.param("rule", ArchRuleSuite.ofLibrary().getRules().stream()
+                    .map(ArchRuleSuite.NamedRule::name)
+                    .toArray(String[]::new));
+        }
+        new Runner(builder.build()).run();
+    }
+}
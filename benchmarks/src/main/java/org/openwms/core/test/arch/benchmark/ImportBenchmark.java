@@ -0,0 +1,83 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.benchmark;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openwms.core.test.arch.ClassHeader;
+import org.openwms.core.test.arch.ClassHeaders;
+import org.openwms.core.test.arch.ResolutionProfile;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A ImportBenchmark measures the time to import a synthetic codebase with the {@link ClassFileImporter}, compared to only
+ * reading the {@link ClassHeader}s.
+ *
+ * @author Heiko Scherrer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImportBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int size;
+
+    @Param({"FAST", "COMPLETE"})
+    public ResolutionProfile profile;
+
+    private Path root;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        root = SyntheticCodebase.generate(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() {
+        SyntheticCodebase.delete(root);
+    }
+
+    @Benchmark
+    public JavaClasses importClasses() {
+        return profile.applyDuring(() -> new ClassFileImporter().importPath(root));
+    }
+
+    @Benchmark
+    public List<ClassHeader> readHeaders() {
+        return ClassHeaders.scan(List.of(Location.of(root)), List.of());
+    }
+}
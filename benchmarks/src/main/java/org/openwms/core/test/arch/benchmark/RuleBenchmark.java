@@ -0,0 +1,94 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.benchmark;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openwms.core.test.arch.ArchRuleSuite;
+import org.openwms.core.test.arch.ImportSession;
+import org.openwms.core.test.arch.ResolutionProfile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A RuleBenchmark measures the evaluation of each single rule of this library against a synthetic codebase.
+ *
+ * The rule is selected by its name in the {@link ArchRuleSuite}, in the form {@literal SimpleClassName.fieldName}. Each
+ * invocation starts with empty rule caches, like the first evaluation of a build, so that an index built once per import
+ * is part of the measured time and not only of the first iteration.
+ *
+ * @author Heiko Scherrer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int size;
+
+    @Param({"FAST", "COMPLETE"})
+    public ResolutionProfile profile;
+
+    /** Set to all rules of {@link ArchRuleSuite#ofLibrary()} by {@link Benchmarks} unless given with {@literal -p rule=...}. */
+    @Param
+    public String rule;
+
+    private JavaClasses classes;
+    private ArchRule archRule;
+
+    @Setup(Level.Trial)
+    public void importCodebase() {
+        var root = SyntheticCodebase.generate(size);
+        try {
+            classes = profile.applyDuring(() -> new ClassFileImporter().importPath(root));
+        } finally {
+            SyntheticCodebase.delete(root);
+        }
+        archRule = ArchRuleSuite.ofLibrary().getRules().stream()
+                .filter(r -> r.name().equals(rule))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No rule with name " + rule))
+                .rule();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetCaches() {
+        ImportSession.reset();
+    }
+
+    @Benchmark
+    public EvaluationResult evaluate() {
+        return archRule.evaluate(classes);
+    }
+}
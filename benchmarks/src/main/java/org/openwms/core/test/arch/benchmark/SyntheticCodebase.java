@@ -0,0 +1,245 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.benchmark;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import static org.objectweb.asm.Opcodes.ACC_ABSTRACT;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_INTERFACE;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.NEW;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.PUTSTATIC;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V17;
+
+/**
+ * A SyntheticCodebase generates the class files of an OpenWMS like codebase of a given size.
+ *
+ * The classes are grouped into modules {@literal org.openwms.m<n>} of {@value #CLASSES_PER_MODULE} classes each: an api
+ * interface and a VO, two entities in the domain layer, a service, a validator and a configuration in the application layer,
+ * and a repository, a controller and a listener in the adapter layer. Each service calls the api of the previous module, so
+ * the slices have dependencies but no cycles. The class files are only parsed by ArchUnit and never loaded.
+ *
+ * @author Heiko Scherrer
+ */
+final class SyntheticCodebase {
+
+    static final int CLASSES_PER_MODULE = 10;
+    private static final String OBJECT = "java/lang/Object";
+    private static final String LOGGER = "Lorg/slf4j/Logger;";
+    private static final String APPLICATION_ENTITY = "org/ameba/integration/jpa/ApplicationEntity";
+
+    private SyntheticCodebase() {}
+
+    /**
+     * Generates a codebase of roughly the given number of classes into a new temporary directory.
+     *
+     * @param size The number of classes
+     * @return The root directory of the class files
+     */
+    static Path generate(int size) {
+        try {
+            var root = Files.createTempDirectory("openwms-arch-benchmark-" + size + "-");
+            var modules = Math.max(1, size / CLASSES_PER_MODULE);
+            for (int m = 0; m < modules; m++) {
+                writeModule(root, m);
+            }
+            return root;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes a generated codebase.
+     *
+     * @param root The root directory
+     */
+    static void delete(Path root) {
+        try (var paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeModule(Path root, int m) throws IOException {
+        var base = "org/openwms/m" + m + "/";
+        var api = base + "api/OrderApi";
+        var vo = base + "api/OrderVO";
+        var order = base + "domain/Order";
+        var orderLine = base + "domain/OrderLine";
+        var service = base + "application/OrderServiceImpl";
+        var validator = base + "application/OrderValidator";
+        var configuration = base + "application/OrderConfiguration";
+        var repository = base + "adapter/jpa/OrderRepository";
+        var controller = base + "adapter/http/OrderController";
+        var listener = base + "adapter/messaging/OrderListener";
+        var previousApi = "org/openwms/m" + Math.max(0, m - 1) + "/api/OrderApi";
+
+        var cw = type(ACC_PUBLIC | ACC_ABSTRACT | ACC_INTERFACE, api, OBJECT, null);
+        cw.visitMethod(ACC_PUBLIC | ACC_ABSTRACT, "process", "()V", null, null).visitEnd();
+        write(root, api, cw);
+
+        cw = type(ACC_PUBLIC | ACC_SUPER, vo, OBJECT, null);
+        cw.visitField(ACC_PRIVATE, "id", "Ljava/lang/String;", null, null).visitEnd();
+        constructor(cw, OBJECT);
+        write(root, vo, cw);
+
+        for (var entity : new String[]{order, orderLine}) {
+            cw = type(ACC_PUBLIC | ACC_SUPER, entity, APPLICATION_ENTITY, null,
+                    "Ljakarta/persistence/Entity;", "Ljakarta/persistence/Table;");
+            cw.visitField(ACC_PRIVATE, "orderId", "Ljava/lang/String;", null, null).visitEnd();
+            constructor(cw, APPLICATION_ENTITY);
+            var mv = cw.visitMethod(ACC_PUBLIC, "equals", "(Ljava/lang/Object;)Z", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKESPECIAL, APPLICATION_ENTITY, "equals", "(Ljava/lang/Object;)Z", false);
+            mv.visitInsn(IRETURN);
+            end(mv);
+            mv = cw.visitMethod(ACC_PUBLIC, "hashCode", "()I", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, APPLICATION_ENTITY, "hashCode", "()I", false);
+            mv.visitInsn(IRETURN);
+            end(mv);
+            write(root, entity, cw);
+        }
+
+        cw = type(ACC_PUBLIC | ACC_ABSTRACT | ACC_INTERFACE, repository, OBJECT, null,
+                "Lorg/springframework/stereotype/Repository;");
+        cw.visitMethod(ACC_PUBLIC | ACC_ABSTRACT, "save", "(L" + order + ";)L" + order + ";", null, null).visitEnd();
+        write(root, repository, cw);
+
+        cw = type(ACC_SUPER, service, OBJECT, new String[]{api}, "Lorg/springframework/stereotype/Service;");
+        cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "LOGGER", LOGGER, null, null).visitEnd();
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, "repository", "L" + repository + ";", null, null).visitEnd();
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, "previous", "L" + previousApi + ";", null, null).visitEnd();
+        constructor(cw, OBJECT);
+        var mv = cw.visitMethod(ACC_PUBLIC, "process", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, service, "repository", "L" + repository + ";");
+        mv.visitTypeInsn(NEW, order);
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, order, "<init>", "()V", false);
+        mv.visitMethodInsn(INVOKEINTERFACE, repository, "save", "(L" + order + ";)L" + order + ";", true);
+        mv.visitInsn(POP);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, service, "previous", "L" + previousApi + ";");
+        mv.visitMethodInsn(INVOKEINTERFACE, previousApi, "process", "()V", true);
+        mv.visitInsn(RETURN);
+        end(mv);
+        staticLogger(cw, service);
+        write(root, service, cw);
+
+        cw = type(ACC_SUPER, validator, OBJECT, null, "Lorg/springframework/stereotype/Component;",
+                "Lorg/springframework/validation/annotation/Validated;");
+        constructor(cw, OBJECT);
+        mv = cw.visitMethod(ACC_PUBLIC, "validate", "(L" + vo + ";)V", null, null);
+        mv.visitParameterAnnotation(0, "Ljakarta/validation/constraints/NotNull;", true).visitEnd();
+        mv.visitCode();
+        mv.visitInsn(RETURN);
+        end(mv);
+        write(root, validator, cw);
+
+        cw = type(ACC_PUBLIC | ACC_SUPER, configuration, OBJECT, null,
+                "Lorg/springframework/context/annotation/Configuration;");
+        constructor(cw, OBJECT);
+        write(root, configuration, cw);
+
+        cw = type(ACC_PUBLIC | ACC_SUPER, controller, OBJECT, null,
+                "Lorg/springframework/web/bind/annotation/RestController;");
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, "api", "L" + api + ";", null, null).visitEnd();
+        constructor(cw, OBJECT);
+        mv = cw.visitMethod(ACC_PUBLIC, "list", "()Ljava/util/List;", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, controller, "api", "L" + api + ";");
+        mv.visitMethodInsn(INVOKEINTERFACE, api, "process", "()V", true);
+        mv.visitMethodInsn(INVOKESTATIC, "java/util/List", "of", "()Ljava/util/List;", true);
+        mv.visitInsn(ARETURN);
+        end(mv);
+        write(root, controller, cw);
+
+        cw = type(ACC_SUPER, listener, OBJECT, null, "Lorg/springframework/stereotype/Component;");
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, "orderLine", "L" + orderLine + ";", null, null).visitEnd();
+        constructor(cw, OBJECT);
+        write(root, listener, cw);
+    }
+
+    private static ClassWriter type(int access, String name, String superName, String[] interfaces, String... annotations) {
+        var cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V17, access, name, null, superName, interfaces);
+        for (var annotation : annotations) {
+            cw.visitAnnotation(annotation, true).visitEnd();
+        }
+        return cw;
+    }
+
+    private static void constructor(ClassWriter cw, String superName) {
+        var mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, superName, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        end(mv);
+    }
+
+    private static void staticLogger(ClassWriter cw, String owner) {
+        var mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        mv.visitCode();
+        mv.visitLdcInsn(Type.getObjectType(owner));
+        mv.visitMethodInsn(INVOKESTATIC, "org/slf4j/LoggerFactory", "getLogger", "(Ljava/lang/Class;)" + LOGGER, false);
+        mv.visitFieldInsn(PUTSTATIC, owner, "LOGGER", LOGGER);
+        mv.visitInsn(RETURN);
+        end(mv);
+    }
+
+    private static void end(MethodVisitor mv) {
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void write(Path root, String internalName, ClassWriter cw) throws IOException {
+        cw.visitEnd();
+        var file = root.resolve(internalName + ".class");
+        Files.createDirectories(file.getParent());
+        Files.write(file, cw.toByteArray());
+    }
+}
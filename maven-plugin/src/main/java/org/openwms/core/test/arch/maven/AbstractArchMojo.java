@@ -0,0 +1,255 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.maven;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.Location;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.openwms.core.test.arch.ArchConstants;
+import org.openwms.core.test.arch.ArchRuleSuite;
+import org.openwms.core.test.arch.ArchSettings;
+import org.openwms.core.test.arch.BaselineArchRule;
+import org.openwms.core.test.arch.ClassHeaders;
+import org.openwms.core.test.arch.CompactViolationStore;
+import org.openwms.core.test.arch.HeaderRules;
+import org.openwms.core.test.arch.ScanScope;
+import org.openwms.core.test.arch.ViolationStream;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A AbstractArchMojo is the base class of the goals that evaluate the rules of this library on compiled classes.
+ *
+ * The classes are imported with the compile classpath of the projects as context class loader, so that ArchUnit resolves
+ * annotations and supertypes from the dependencies of the project and not from the plugin. The settings of each module are
+ * passed with an {@link ArchSettings.Scope} of the evaluating thread and not as system properties, so that modules built in
+ * parallel with {@literal -T} do not see the settings of each other.
+ *
+ * @author Heiko Scherrer
+ */
+abstract class AbstractArchMojo extends AbstractMojo {
+
+    /** The project the goal is executed for. */
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    protected MavenProject project;
+
+    /** Skips the evaluation. */
+    @Parameter(property = "openwms.arch.skip", defaultValue = "false")
+    protected boolean skip;
+
+    /** Only logs failed rules instead of failing the build. */
+    @Parameter(property = "openwms.arch.failOnViolation", defaultValue = "true")
+    protected boolean failOnViolation;
+
+    /**
+     * The fully qualified names of the rule classes to evaluate, all rule classes of this library if not set. The rules of
+     * this library are evaluated with the {@link HeaderRules} in place of the ArchUnit rules these replace.
+     */
+    @Parameter
+    protected List<String> ruleClasses;
+
+    /**
+     * An action executed with the compile classpath of the projects.
+     *
+     * @param <T> The type of the result
+     */
+    @FunctionalInterface
+    protected interface ClasspathAction<T> {
+        T run() throws MojoExecutionException;
+    }
+
+    /**
+     * Creates the suite of the configured rule classes, loaded with the context class loader. Call it within
+     * {@link #withClasspathOf(Collection, ClasspathAction)} so that rule classes of the project are found.
+     *
+     * @return The suite
+     * @throws MojoExecutionException If a rule class cannot be loaded
+     */
+    protected ArchRuleSuite suite() throws MojoExecutionException {
+        if (isLibrary()) {
+            return ArchRuleSuite.ofLibrary().excluding(HeaderRules.REPLACED);
+        }
+        var classes = new ArrayList<Class<?>>(ruleClasses.size());
+        for (var name : ruleClasses) {
+            try {
+                classes.add(Class.forName(name, true, Thread.currentThread().getContextClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new MojoExecutionException("Rule class [%s] not found".formatted(name), e);
+            }
+        }
+        return ArchRuleSuite.of(classes.toArray(Class<?>[]::new));
+    }
+
+    private boolean isLibrary() {
+        return ruleClasses == null || ruleClasses.isEmpty();
+    }
+
+    /**
+     * Evaluates the suite against the classes of one module and reports the result.
+     *
+     * The baseline of frozen rules and the streamed violations are kept per module: relative directories are resolved
+     * against the base directory of the module, absolute ones get a subdirectory named by the artifactId. So a module
+     * neither prunes the baseline of another module nor overwrites its violation files. The {@value ArchSettings#FILE} file
+     * of the output directory of the module is used if it exists, otherwise the one of the classpath. With the rules of this
+     * library the {@link HeaderRules} are evaluated on the class files of the output directory, without the import.
+     *
+     * @param module The module
+     * @param suite The suite
+     * @param classes The classes of the module
+     * @param outputDirectory The output directory of the module
+     * @return The failure message, empty if no rule has failed
+     */
+    protected String evaluate(MavenProject module, ArchRuleSuite suite, JavaClasses classes, Path outputDirectory) {
+        var file = outputDirectory.resolve(ArchSettings.FILE);
+        var moduleSettings = Files.isRegularFile(file) ? ArchSettings.Scope.of(file) : ArchSettings.Scope.current();
+        String baselineDirectory;
+        String violationsDirectory;
+        try (var ignored = moduleSettings.activate()) {
+            baselineDirectory = ArchSettings.get(BaselineArchRule.DIR_KEY, CompactViolationStore.DEFAULT_PATH);
+            violationsDirectory = ArchSettings.get(ViolationStream.DIR_KEY, ViolationStream.DEFAULT_DIR);
+        }
+        var settings = moduleSettings.with(Map.of(
+                BaselineArchRule.DIR_KEY, moduleDirectory(module, baselineDirectory),
+                ViolationStream.DIR_KEY, moduleDirectory(module, violationsDirectory)));
+        try (var ignored = settings.activate()) {
+            var headerFailures = isLibrary() ? headerFailures(outputDirectory) : Map.<String, String>of();
+            return report(module.getArtifactId(), suite, suite.evaluate(classes), headerFailures);
+        }
+    }
+
+    private static Map<String, String> headerFailures(Path outputDirectory) {
+        if (!Files.isDirectory(outputDirectory)) {
+            return Map.of();
+        }
+        var headers = ClassHeaders.scan(List.of(Location.of(outputDirectory)), List.of(new ScanScope.Filter()));
+        return HeaderRules.failures(ClassHeaders.inScope(headers));
+    }
+
+    private static String moduleDirectory(MavenProject module, String directory) {
+        var path = Path.of(directory);
+        return (path.isAbsolute() ? path.resolve(module.getArtifactId()) : module.getBasedir().toPath().resolve(path)).toString();
+    }
+
+    /**
+     * Imports the classes of the given output directories that exist.
+     *
+     * @param outputDirectories The class directories
+     * @return The imported classes
+     */
+    protected static JavaClasses importClasses(Collection<Path> outputDirectories) {
+        var existing = outputDirectories.stream().filter(Files::isDirectory).toList();
+        return new ClassFileImporter()
+                .withImportOption(new ArchConstants.RecordFingerprints())
+                .withImportOption(new ScanScope.Filter())
+                .importPaths(existing);
+    }
+
+    /**
+     * Runs the action with a context class loader of the compile classpath of the given projects, and with the
+     * {@value ArchSettings#FILE} file of that classpath instead of the one the plugin has read first.
+     *
+     * @param projects The projects
+     * @param action The action
+     * @param <T> The type of the result
+     * @return The result of the action
+     * @throws MojoExecutionException If the classpath cannot be resolved or the action fails
+     */
+    protected <T> T withClasspathOf(Collection<MavenProject> projects, ClasspathAction<T> action) throws MojoExecutionException {
+        var urls = new LinkedHashSet<URL>();
+        try {
+            for (var mavenProject : projects) {
+                for (var element : mavenProject.getCompileClasspathElements()) {
+                    urls.add(Path.of(element).toUri().toURL());
+                }
+            }
+        } catch (DependencyResolutionRequiredException | MalformedURLException e) {
+            throw new MojoExecutionException("Cannot resolve the compile classpath", e);
+        }
+        var thread = Thread.currentThread();
+        var previous = thread.getContextClassLoader();
+        try (var classLoader = new URLClassLoader(urls.toArray(URL[]::new), getClass().getClassLoader());
+             var ignored = ArchSettings.Scope.of(classLoader).activate()) {
+            thread.setContextClassLoader(classLoader);
+            return action.run();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Cannot close the classpath", e);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    /**
+     * Logs the failed rules and fails the build with the same messages the rules report as JUnit tests.
+     *
+     * @param module The name of the evaluated module
+     * @param suite The evaluated suite
+     * @param results The results of the evaluation
+     * @param headerFailures The failure messages of the violated {@link HeaderRules}, keyed by rule name
+     * @return The failure message, empty if no rule has failed
+     */
+    protected String report(String module, ArchRuleSuite suite, List<ArchRuleSuite.Result> results, Map<String, String> headerFailures) {
+        var failures = new LinkedHashMap<>(headerFailures);
+        for (var result : results) {
+            if (result.hasFailed()) {
+                failures.put(result.name(), result.failureMessage());
+            }
+        }
+        var total = suite.getRules().size() + (isLibrary() ? HeaderRules.REPLACED.size() : 0);
+        if (failures.isEmpty()) {
+            getLog().info("%s: all %d architecture rules passed".formatted(module, total));
+            return "";
+        }
+        var sb = new StringBuilder("%s: %d of %d architecture rules failed".formatted(module, failures.size(), total));
+        failures.forEach((name, message) -> sb.append(System.lineSeparator()).append(System.lineSeparator())
+                .append('[').append(name).append("] ").append(message));
+        return sb.toString();
+    }
+
+    /**
+     * Fails the build with the given messages or logs them, depending on {@link #failOnViolation}.
+     *
+     * @param messages The failure messages, empty ones are ignored
+     * @throws MojoFailureException If at least one message is not empty and the build should fail
+     */
+    protected void failOn(List<String> messages) throws MojoFailureException {
+        var failures = messages.stream().filter(m -> !m.isEmpty()).toList();
+        if (failures.isEmpty()) {
+            return;
+        }
+        var message = String.join(System.lineSeparator() + System.lineSeparator(), failures);
+        if (failOnViolation) {
+            throw new MojoFailureException(message);
+        }
+        getLog().warn(message);
+    }
+}
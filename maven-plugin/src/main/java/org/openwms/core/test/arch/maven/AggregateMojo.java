@@ -0,0 +1,85 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.maven;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.openwms.core.test.arch.ArchRuleSuite;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+/**
+ * A AggregateMojo evaluates the rules on the compiled classes of all modules of the reactor, to be called once at the root,
+ * e.g. {@literal mvn compile openwms-arch:aggregate}.
+ *
+ * The classes of all modules are imported once, so that classes of one module referenced by another one are not resolved
+ * again. The modules are evaluated one after the other against that shared import, each by the parallel {@link ArchRuleSuite}
+ * and with the classes of its own output directory only, as rules with state, like the cycle check, must not be evaluated
+ * concurrently.
+ *
+ * @author Heiko Scherrer
+ */
+@Mojo(name = "aggregate", defaultPhase = LifecyclePhase.PROCESS_CLASSES, aggregator = true, threadSafe = true,
+        requiresDependencyResolution = ResolutionScope.COMPILE)
+public class AggregateMojo extends AbstractArchMojo {
+
+    /** The session with the projects of the reactor. */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Skipping architecture rules");
+            return;
+        }
+        var modules = new LinkedHashMap<MavenProject, Path>();
+        for (var mavenProject : session.getProjects()) {
+            if (!"pom".equals(mavenProject.getPackaging())) {
+                modules.put(mavenProject, Path.of(mavenProject.getBuild().getOutputDirectory()));
+            }
+        }
+        var messages = withClasspathOf(modules.keySet(), () -> {
+            var suite = suite();
+            var start = System.nanoTime();
+            var classes = importClasses(modules.values());
+            getLog().info("Imported %d classes of %d modules in %d ms".formatted(classes.size(), modules.size(),
+                    (System.nanoTime() - start) / 1_000_000));
+            var result = new ArrayList<String>(modules.size());
+            for (var module : modules.entrySet()) {
+                result.add(evaluate(module.getKey(), suite, classes.that(locatedIn(module.getValue())), module.getValue()));
+            }
+            return result;
+        });
+        failOn(messages);
+    }
+
+    private static DescribedPredicate<JavaClass> locatedIn(Path outputDirectory) {
+        var prefix = outputDirectory.toUri().toString();
+        return DescribedPredicate.describe("are located in " + outputDirectory,
+                javaClass -> javaClass.getSource().map(s -> s.getUri().toString().startsWith(prefix)).orElse(false));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A CheckMojo evaluates the rules on the compiled classes of the current module directly after they are compiled, without
+ * the test phase.
+ *
+ * @author Heiko Scherrer
+ */
+@Mojo(name = "check", defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true,
+        requiresDependencyResolution = ResolutionScope.COMPILE)
+public class CheckMojo extends AbstractArchMojo {
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip || "pom".equals(project.getPackaging())) {
+            getLog().info("Skipping architecture rules");
+            return;
+        }
+        var message = withClasspathOf(List.of(project), () -> {
+            var suite = suite();
+            var outputDirectory = Path.of(project.getBuild().getOutputDirectory());
+            return evaluate(project, suite, importClasses(List.of(outputDirectory)), outputDirectory);
+        });
+        failOn(List.of(message));
+    }
+}
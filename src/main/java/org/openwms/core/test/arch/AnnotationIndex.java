@@ -0,0 +1,227 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaParameter;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A AnnotationIndex maps each annotation type to the classes, methods and method parameters that carry it, directly or as
+ * meta-annotation.
+ *
+ * The index is built in one pass over the classes of an import and kept as long as the import is referenced, so rules that
+ * only apply to a few annotated classes are evaluated against a {@link Selection} of these instead of the whole import, see
+ * {@link ScopedArchRule#classLocal(com.tngtech.archunit.lang.ArchRule, Selection)}. The meta-annotations of an annotation
+ * type are resolved once per JVM, annotations of {@literal java.lang.annotation} are not indexed.
+ *
+ * @author Heiko Scherrer
+ */
+public final class AnnotationIndex {
+
+    private static final ImportCache<JavaClasses, AnnotationIndex> INDEXES = new ImportCache<>(AnnotationIndex::build);
+    private static final Map<String, Set<String>> META_ANNOTATIONS = new ConcurrentHashMap<>();
+    private static final String JAVA_LANG_ANNOTATION = "java.lang.annotation.";
+
+    private final Map<String, Set<JavaClass>> classes = new HashMap<>();
+    private final Map<String, Set<JavaMethod>> methods = new HashMap<>();
+    private final Map<String, Set<JavaParameter>> parameters = new HashMap<>();
+
+    private AnnotationIndex() {}
+
+    /**
+     * Selects the classes a rule is evaluated against from the index.
+     */
+    @FunctionalInterface
+    public interface Selection {
+
+        /**
+         * Selects classes.
+         *
+         * @param index The index of the evaluated classes
+         * @return The selected classes
+         */
+        Set<JavaClass> select(AnnotationIndex index);
+    }
+
+    /**
+     * Returns the index of the given classes, built on first access.
+     *
+     * @param javaClasses The imported classes
+     * @return The index
+     */
+    public static AnnotationIndex of(JavaClasses javaClasses) {
+        return INDEXES.get(javaClasses);
+    }
+
+    private static AnnotationIndex build(JavaClasses javaClasses) {
+        var index = new AnnotationIndex();
+        for (var javaClass : javaClasses) {
+            index(javaClass.getAnnotations(), javaClass, index.classes);
+            for (var method : javaClass.getMethods()) {
+                index(method.getAnnotations(), method, index.methods);
+                for (var parameter : method.getParameters()) {
+                    index(parameter.getAnnotations(), parameter, index.parameters);
+                }
+            }
+        }
+        return index;
+    }
+
+    private static <T> void index(Collection<? extends JavaAnnotation<?>> annotations, T element, Map<String, Set<T>> target) {
+        for (var annotation : annotations) {
+            for (var name : namesOf(annotation.getRawType())) {
+                target.computeIfAbsent(name, k -> new LinkedHashSet<>()).add(element);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the annotation type and of all its meta-annotations.
+     *
+     * @param annotationType The annotation type
+     * @return The names
+     */
+    static Set<String> namesOf(JavaClass annotationType) {
+        return META_ANNOTATIONS.computeIfAbsent(annotationType.getName(), name -> {
+            var collected = new HashSet<String>();
+            collectNames(annotationType, collected);
+            return Set.copyOf(collected);
+        });
+    }
+
+    private static void collectNames(JavaClass annotationType, Set<String> names) {
+        if (annotationType.getName().startsWith(JAVA_LANG_ANNOTATION) || !names.add(annotationType.getName())) {
+            return;
+        }
+        for (var meta : annotationType.getAnnotations()) {
+            collectNames(meta.getRawType(), names);
+        }
+    }
+
+    /**
+     * Returns the classes annotated or meta-annotated with the given annotation.
+     *
+     * @param annotationName The fully qualified name of the annotation type
+     * @return The classes
+     */
+    public Set<JavaClass> classesAnnotatedWith(String annotationName) {
+        return classes.getOrDefault(annotationName, Set.of());
+    }
+
+    /**
+     * Returns the methods annotated or meta-annotated with the given annotation.
+     *
+     * @param annotationName The fully qualified name of the annotation type
+     * @return The methods
+     */
+    public Set<JavaMethod> methodsAnnotatedWith(String annotationName) {
+        return methods.getOrDefault(annotationName, Set.of());
+    }
+
+    /**
+     * Returns the method parameters annotated or meta-annotated with the given annotation.
+     *
+     * @param annotationName The fully qualified name of the annotation type
+     * @return The parameters
+     */
+    public Set<JavaParameter> parametersAnnotatedWith(String annotationName) {
+        return parameters.getOrDefault(annotationName, Set.of());
+    }
+
+    /**
+     * Selects the classes annotated or meta-annotated with any of the given annotations.
+     *
+     * @param annotations The annotation types
+     * @return The selection
+     */
+    @SafeVarargs
+    public static Selection classesAnnotatedWith(Class<? extends Annotation>... annotations) {
+        var names = Arrays.stream(annotations).map(Class::getName).toList();
+        return index -> {
+            var result = new HashSet<JavaClass>();
+            for (var name : names) {
+                result.addAll(index.classesAnnotatedWith(name));
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Selects the classes with methods that have a parameter annotated with an annotation of the given package or its
+     * subpackages, like {@literal jakarta.validation}.
+     *
+     * @param packageName The package of the annotation types
+     * @return The selection
+     */
+    public static Selection classesWithParametersAnnotatedIn(String packageName) {
+        var prefix = packageName + ".";
+        return index -> {
+            var result = new HashSet<JavaClass>();
+            for (var entry : index.parameters.entrySet()) {
+                if (entry.getKey().startsWith(prefix)) {
+                    for (var parameter : entry.getValue()) {
+                        result.add(parameter.getOwner().getOwner());
+                    }
+                }
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Returns the selected classes of the given classes.
+     *
+     * @param javaClasses The imported classes
+     * @param selection The selection
+     * @return The selected classes
+     */
+    public static JavaClasses select(JavaClasses javaClasses, Selection selection) {
+        var selected = selection.select(of(javaClasses));
+        return javaClasses.that(DescribedPredicate.describe("are selected from the annotation index", selected::contains));
+    }
+
+    /**
+     * Predicate that selects classes annotated or meta-annotated with the given annotation.
+     *
+     * @param annotation The annotation type
+     * @return The predicate
+     */
+    public static DescribedPredicate<JavaClass> areAnnotatedOrMetaAnnotatedWith(Class<? extends Annotation> annotation) {
+        var name = annotation.getName();
+        return DescribedPredicate.describe("are annotated or meta-annotated with @" + annotation.getSimpleName(), javaClass -> {
+            for (var candidate : javaClass.getAnnotations()) {
+                if (namesOf(candidate.getRawType()).contains(name)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+}
@@ -19,7 +19,6 @@ import com.tngtech.archunit.core.importer.ImportOption;
 import com.tngtech.archunit.core.importer.Location;
 
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 /**
  * A ArchConstants defines useful constants.
@@ -31,29 +30,39 @@ public final class ArchConstants {
     private ArchConstants() {}
 
     /**
-     * A `PatternPredicate` instance used to identify Maven-generated source files.
+     * The root package of all OpenWMS.org components that is scanned by the rule classes of this library, unless the
+     * {@link ScanScope} is configured otherwise.
      *
-     * The `MAVEN_GEN_SOURCES` pattern specifically matches file paths
+     * All rule classes use the same locations and the same import options, so that ArchUnit imports the classes only once
+     * per JVM and shares the result between them.
+     */
+    public static final String BASE_PACKAGE = "org.openwms";
+
+    /**
+     * A `PathSegmentPredicate` instance used to identify Maven-generated source files.
+     *
+     * The `MAVEN_GEN_SOURCES` predicate specifically matches file paths
      * that include the directory `target/generated-sources/annotations/`.
-     * This pattern is employed to exclude such generated source files,
+     * This predicate is employed to exclude such generated source files,
      * particularly in contexts like code analysis and importing processes,
      * where including generated sources is typically undesirable.
      */
-    static final PatternPredicate MAVEN_GEN_SOURCES = new PatternPredicate(".*/target/generated-sources/annotations/.*");
+    static final PathSegmentPredicate MAVEN_GEN_SOURCES = new PathSegmentPredicate("/target/generated-sources/annotations/");
 
     /**
-     * A Predicate implementation that checks if a given Location matches a specified pattern.
+     * A Predicate implementation that checks if a given Location contains a specified path segment. This is a plain substring
+     * search on the URI and does not need a regular expression per location.
      */
-    private static class PatternPredicate implements Predicate<Location> {
-        private final Pattern pattern;
+    private static class PathSegmentPredicate implements Predicate<Location> {
+        private final String segment;
 
-        PatternPredicate(String pattern) {
-            this.pattern = Pattern.compile(pattern);
+        PathSegmentPredicate(String segment) {
+            this.segment = segment;
         }
 
         @Override
         public boolean test(Location input) {
-            return input.matches(pattern);
+            return input.contains(segment);
         }
     }
 
@@ -63,14 +72,38 @@ public final class ArchConstants {
      *
      * This option checks if a given location corresponds to the generated sources directory
      * as specified by the Maven build system. If the location matches the Maven generated sources pattern,
-     * it will be excluded.
+     * it will be excluded. The decisions are counted by the {@link ImportFilterMetrics}.
      */
     public static class DoNotIncludeGeneratedSources implements ImportOption {
 
         @Override
         public boolean includes(Location location) {
-            System.out.println(location.asURI().toString());
-            return !MAVEN_GEN_SOURCES.test(location);
+            var start = System.nanoTime();
+            var included = !MAVEN_GEN_SOURCES.test(location);
+            ImportFilterMetrics.get().record(included, System.nanoTime() - start);
+            return included;
+        }
+    }
+
+    /**
+     * A class that implements the ImportOption interface to record a fingerprint of every imported location.
+     *
+     * This option does not exclude any location and counts the imported locations for the {@link RuleMetrics}. Only if
+     * recording is enabled with the
+     * {@value LocationFingerprints#RECORD_KEY} setting, the fingerprints are collected and saved to a persistent manifest
+     * when the JVM shuts down. Otherwise it costs no more than a lookup of a system property.
+     */
+    public static class RecordFingerprints implements ImportOption {
+
+        private final boolean enabled = LocationFingerprints.isRecordingEnabled();
+
+        @Override
+        public boolean includes(Location location) {
+            RuleMetrics.locationImported();
+            if (enabled) {
+                LocationFingerprints.recorder().record(location.asURI());
+            }
+            return true;
         }
     }
 }
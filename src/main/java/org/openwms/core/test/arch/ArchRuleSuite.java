@@ -0,0 +1,248 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.EvaluationResult;
+import org.openwms.core.test.arch.persistence.jpa.EntityClassRules;
+import org.openwms.core.test.arch.persistence.jpa.EntityPerformanceRules;
+import org.openwms.core.test.arch.presentation.PresentationRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A ArchRuleSuite evaluates the {@link ArchTest} annotated {@link ArchRule} fields of a set of rule classes concurrently.
+ *
+ * All rules read the same immutable {@link JavaClasses}, so they are evaluated in parallel on a {@link ForkJoinPool}. The
+ * results are reported in a stable order: the order of the rule classes as given and the rules of each class sorted by
+ * field name. The parallelism defaults to the number of available processors and is set with the {@value #PARALLELISM_KEY}
+ * setting. If the {@link RuleMetrics} are enabled, the cost of each rule is recorded and a rule that exceeds its budget fails.
+ *
+ * @author Heiko Scherrer
+ */
+public final class ArchRuleSuite {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArchRuleSuite.class);
+    /** The setting with the number of threads used to evaluate the rules. */
+    public static final String PARALLELISM_KEY = "suite.parallelism";
+    private final List<NamedRule> rules;
+
+    private ArchRuleSuite(List<NamedRule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * A rule with the name of the field it is declared in.
+     *
+     * @param name The name in the form {@literal SimpleClassName.fieldName}
+     * @param rule The rule
+     */
+    public record NamedRule(String name, ArchRule rule) {}
+
+    /**
+     * The outcome of the evaluation of one rule.
+     *
+     * @param name The name of the rule
+     * @param evaluation The evaluation result, {@literal null} if the evaluation has thrown an error
+     * @param error The error thrown by the evaluation, {@literal null} if the rule has been evaluated
+     * @param measurement The cost of the evaluation, {@literal null} if the {@link RuleMetrics} are not enabled
+     */
+    public record Result(String name, EvaluationResult evaluation, Throwable error, RuleMetrics.Measurement measurement) {
+
+        /**
+         * Checks whether the rule has been violated, could not be evaluated or exceeded its budget.
+         *
+         * @return {@literal true} if failed
+         */
+        public boolean hasFailed() {
+            return error != null || evaluation.hasViolation() || exceedsBudget();
+        }
+
+        private boolean exceedsBudget() {
+            return measurement != null && measurement.exceedsBudget();
+        }
+
+        /**
+         * Returns the same message the rule reports when it is checked.
+         *
+         * @return The failure message, empty if the rule has not failed
+         */
+        public String failureMessage() {
+            var sb = new StringBuilder();
+            if (error != null) {
+                sb.append(error.getMessage());
+            } else if (evaluation.hasViolation()) {
+                sb.append(evaluation.getFailureReport());
+            }
+            if (exceedsBudget()) {
+                sb.append(sb.isEmpty() ? "" : System.lineSeparator())
+                        .append(RuleMetrics.budgetMessage(measurement.wallNanos(), measurement.budgetMillis()));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Creates a suite of all rules of this library.
+     *
+     * @return The suite
+     */
+    public static ArchRuleSuite ofLibrary() {
+        return of(GlobalRules.class, OnionArchitectureRules.class, SpringRules.class, SpringPerformanceRules.class,
+                SpringStartupRules.class, VirtualThreadRules.class, MemoryRules.class, ConcurrencyRules.class,
+                ValidationRules.class, EntityClassRules.class, EntityPerformanceRules.class, PresentationRules.class);
+    }
+
+    /**
+     * Creates a suite of all {@link ArchTest} annotated {@link ArchRule} fields, static or not, of the given classes.
+     *
+     * @param ruleClasses The classes declaring the rules
+     * @return The suite
+     * @throws IllegalArgumentException If a rule class cannot be instantiated or a field cannot be read
+     */
+    public static ArchRuleSuite of(Class<?>... ruleClasses) {
+        var result = new ArrayList<NamedRule>();
+        for (var ruleClass : ruleClasses) {
+            var fields = Arrays.stream(ruleClass.getDeclaredFields())
+                    .filter(f -> f.isAnnotationPresent(ArchTest.class) && ArchRule.class.isAssignableFrom(f.getType()))
+                    .sorted(Comparator.comparing(Field::getName))
+                    .toList();
+            Object instance = null;
+            for (var field : fields) {
+                if (!Modifier.isStatic(field.getModifiers()) && instance == null) {
+                    instance = instantiate(ruleClass);
+                }
+                result.add(new NamedRule(ruleClass.getSimpleName() + "." + field.getName(), read(field, instance)));
+            }
+        }
+        return new ArchRuleSuite(result);
+    }
+
+    private static Object instantiate(Class<?> ruleClass) {
+        try {
+            var constructor = ruleClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot instantiate rule class " + ruleClass.getName(), e);
+        }
+    }
+
+    private static ArchRule read(Field field, Object instance) {
+        try {
+            field.setAccessible(true);
+            return (ArchRule) field.get(Modifier.isStatic(field.getModifiers()) ? null : instance);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot read rule " + field, e);
+        }
+    }
+
+    /**
+     * Creates a suite without the rules of the given names.
+     *
+     * @param names The names in the form {@literal SimpleClassName.fieldName}, like {@link HeaderRules#REPLACED}
+     * @return The new suite
+     */
+    public ArchRuleSuite excluding(Collection<String> names) {
+        return new ArchRuleSuite(rules.stream().filter(r -> !names.contains(r.name())).toList());
+    }
+
+    /**
+     * Returns the rules of this suite.
+     *
+     * @return The rules in reporting order
+     */
+    public List<NamedRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Evaluates all rules concurrently against the given classes, with the {@link ArchSettings.Scope} of the calling thread.
+     *
+     * @param classes The classes to evaluate
+     * @return One result per rule in the order of {@link #getRules()}
+     */
+    public List<Result> evaluate(JavaClasses classes) {
+        var parallelism = ArchSettings.getInt(PARALLELISM_KEY, Runtime.getRuntime().availableProcessors());
+        var pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            var settings = ArchSettings.Scope.current();
+            var tasks = new ArrayList<ForkJoinTask<Result>>(rules.size());
+            for (var rule : rules) {
+                tasks.add(pool.submit(() -> {
+                    try (var ignored = settings.activate()) {
+                        return evaluate(rule, classes);
+                    }
+                }));
+            }
+            var results = new ArrayList<Result>(tasks.size());
+            for (var task : tasks) {
+                results.add(task.join());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Result evaluate(NamedRule rule, JavaClasses classes) {
+        var start = RuleMetrics.start();
+        EvaluationResult evaluation = null;
+        Throwable error = null;
+        try {
+            evaluation = rule.rule().evaluate(classes);
+        } catch (RuntimeException | AssertionError e) {
+            error = e;
+        }
+        var measurement = RuleMetrics.isEnabled() ? RuleMetrics.get().stop(rule.name(), start) : null;
+        LOGGER.debug("Evaluated rule [{}] in [{}] ms", rule.name(), (System.nanoTime() - start.wallNanos()) / 1_000_000);
+        return new Result(rule.name(), evaluation, error, measurement);
+    }
+
+    /**
+     * Evaluates all rules concurrently and fails if at least one rule has failed.
+     *
+     * @param classes The classes to evaluate
+     * @throws AssertionError Listing the failure messages of all failed rules in the order of {@link #getRules()}
+     */
+    public void check(JavaClasses classes) {
+        var results = evaluate(classes);
+        if (RuleMetrics.isEnabled()) {
+            RuleMetrics.get().writeReport();
+        }
+        var failed = results.stream().filter(Result::hasFailed).toList();
+        if (!failed.isEmpty()) {
+            var sb = new StringBuilder("%d of %d architecture rules failed".formatted(failed.size(), rules.size()));
+            for (var result : failed) {
+                sb.append(System.lineSeparator()).append(System.lineSeparator())
+                        .append('[').append(result.name()).append("] ").append(result.failureMessage());
+            }
+            throw new AssertionError(sb.toString());
+        }
+    }
+}
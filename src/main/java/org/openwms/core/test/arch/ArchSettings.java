@@ -0,0 +1,243 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A ArchSettings gives access to the configuration of this library.
+ *
+ * All settings are optional and are passed as system properties prefixed with {@value #PREFIX}, e.g.
+ * {@literal -Dopenwms.arch.fingerprints.record=true}. Settings that are not passed as system property are looked up
+ * without the prefix in the {@value #FILE} file at the root of the classpath, if it exists, e.g.
+ * {@literal fingerprints.record=true}.
+ *
+ * A {@link Scope} replaces the file and overrides single settings for the current thread only, like the Maven plugin does
+ * for each module it evaluates, so that modules evaluated in parallel do not see the settings of each other.
+ *
+ * @author Heiko Scherrer
+ */
+public final class ArchSettings {
+
+    /** The prefix of all system properties that configure this library. */
+    public static final String PREFIX = "openwms.arch.";
+    /** The name of the optional properties file on the classpath. */
+    public static final String FILE = "archunit-openwms.properties";
+
+    private ArchSettings() {}
+
+    private static final class FileHolder {
+        private static final Properties PROPERTIES = load(Thread.currentThread().getContextClassLoader() == null
+                ? ArchSettings.class.getClassLoader()
+                : Thread.currentThread().getContextClassLoader());
+    }
+
+    private static Properties load(ClassLoader classLoader) {
+        try (var in = classLoader.getResourceAsStream(FILE)) {
+            return load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + FILE, e);
+        }
+    }
+
+    private static Properties load(InputStream in) throws IOException {
+        var properties = new Properties();
+        if (in != null) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    /**
+     * A Scope holds the settings of one evaluation: the {@value ArchSettings#FILE} file to use and settings that take precedence over
+     * the system properties. A scope applies to the thread that has activated it, until the activation is closed.
+     */
+    public static final class Scope {
+
+        private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+        private static final Scope GLOBAL = new Scope(Map.of(), null);
+
+        private final Map<String, String> overrides;
+        private final Properties file;
+
+        private Scope(Map<String, String> overrides, Properties file) {
+            this.overrides = overrides;
+            this.file = file;
+        }
+
+        /**
+         * Creates a scope with the {@value ArchSettings#FILE} file found by the given class loader.
+         *
+         * @param classLoader Looks up the file at the root of its classpath
+         * @return The scope
+         * @throws UncheckedIOException If the file cannot be read
+         */
+        public static Scope of(ClassLoader classLoader) {
+            return new Scope(Map.of(), load(classLoader));
+        }
+
+        /**
+         * Creates a scope with the given {@value ArchSettings#FILE} file.
+         *
+         * @param file The file, it is not required to exist
+         * @return The scope
+         * @throws UncheckedIOException If the file cannot be read
+         */
+        public static Scope of(Path file) {
+            if (!Files.isRegularFile(file)) {
+                return new Scope(Map.of(), new Properties());
+            }
+            try (var in = Files.newInputStream(file)) {
+                return new Scope(Map.of(), load(in));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + file, e);
+            }
+        }
+
+        /**
+         * Returns the scope of the current thread.
+         *
+         * @return The activated scope or the global one, with the file of the classpath and no overrides
+         */
+        public static Scope current() {
+            var scope = CURRENT.get();
+            return scope == null ? GLOBAL : scope;
+        }
+
+        /**
+         * Creates a scope with the same file and additional overrides.
+         *
+         * @param settings The settings that take precedence over system properties, keyed without the {@value ArchSettings#PREFIX}
+         * @return The new scope
+         */
+        public Scope with(Map<String, String> settings) {
+            var merged = new HashMap<>(overrides);
+            merged.putAll(settings);
+            return new Scope(Map.copyOf(merged), file);
+        }
+
+        /**
+         * Activates this scope for the current thread, until the returned activation is closed.
+         *
+         * @return The activation, to be closed in a {@literal finally} block or by {@literal try}-with-resources
+         */
+        public Activation activate() {
+            var previous = CURRENT.get();
+            CURRENT.set(this);
+            return () -> {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            };
+        }
+
+        private String lookup(String key) {
+            var value = overrides.get(key);
+            if (value == null) {
+                value = System.getProperty(PREFIX + key);
+            }
+            if (value == null) {
+                value = (file == null ? FileHolder.PROPERTIES : file).getProperty(key);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * The activation of a {@link Scope}, closing it restores the previous scope of the thread.
+     */
+    @FunctionalInterface
+    public interface Activation extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Returns the value of the setting with the given key.
+     *
+     * @param key The key without the {@value #PREFIX}
+     * @param defaultValue Returned if the setting is not present
+     * @return The value
+     */
+    public static String get(String key, String defaultValue) {
+        var value = Scope.current().lookup(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Returns the value of the setting with the given key as boolean.
+     *
+     * @param key The key without the {@value #PREFIX}
+     * @param defaultValue Returned if the setting is not present
+     * @return The value
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * Returns the value of the setting with the given key as int.
+     *
+     * @param key The key without the {@value #PREFIX}
+     * @param defaultValue Returned if the setting is not present
+     * @return The value
+     * @throws IllegalArgumentException If the value is not a number
+     */
+    public static int getInt(String key, int defaultValue) {
+        var value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting [%s%s] is not a number: [%s]".formatted(PREFIX, key, value), e);
+        }
+    }
+
+    /**
+     * Returns the value of the setting with the given key as comma separated list.
+     *
+     * @param key The key without the {@value #PREFIX}
+     * @param defaultValue Returned if the setting is not present
+     * @return The trimmed, non-empty values
+     */
+    public static List<String> getList(String key, List<String> defaultValue) {
+        var value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        var result = new ArrayList<String>();
+        for (var element : value.split(",")) {
+            if (!element.isBlank()) {
+                result.add(element.trim());
+            }
+        }
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * A BaselineArchRule decorates an {@link ArchRule} and reports only the violations that are not yet recorded in the
+ * baseline of a {@link CompactViolationStore}, like ArchUnit's {@link com.tngtech.archunit.library.freeze.FreezingArchRule}
+ * but with a comparison in linear time instead of matching each violation against each recorded one.
+ *
+ * The first evaluation of a rule records all its violations. Later evaluations remove fixed violations from the baseline.
+ * The baseline directory is only created with the {@value #ALLOW_CREATION_KEY} or the {@value #REFREEZE_KEY} setting, so
+ * that a build without the committed baseline fails instead of recording all violations.
+ * Both is skipped if only a part of the classes is seen because the {@link IncrementalScope} or a {@link Shard} is active.
+ * If the {@link ViolationStream} reports only a sample, all violations are read from its file and compared. With the
+ * {@value #REFREEZE_KEY} setting all current violations are recorded, that fails if only a part of the classes is seen.
+ *
+ * @author Heiko Scherrer
+ */
+public final class BaselineArchRule implements ArchRule {
+
+    /** The setting with the directory of the baseline. */
+    public static final String DIR_KEY = "baseline.dir";
+    /** The setting to record all current violations as the new baseline. */
+    public static final String REFREEZE_KEY = "baseline.refreeze";
+    /** The setting that allows creating the baseline directory if it does not exist. */
+    public static final String ALLOW_CREATION_KEY = "baseline.allowStoreCreation";
+
+    private final ArchRule delegate;
+
+    private BaselineArchRule(ArchRule delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Freezes the current violations of the given rule.
+     *
+     * @param rule The rule to freeze
+     * @return The frozen rule
+     */
+    public static ArchRule freeze(ArchRule rule) {
+        return new BaselineArchRule(rule);
+    }
+
+    @Override
+    public void check(JavaClasses classes) {
+        Assertions.check(this, classes);
+    }
+
+    @Override
+    public EvaluationResult evaluate(JavaClasses classes) {
+        var refreeze = ArchSettings.getBoolean(REFREEZE_KEY, false);
+        var partial = IncrementalScope.isEnabled() || Shard.isEnabled();
+        if (refreeze && partial) {
+            throw new IllegalStateException("Refreezing the baseline of rule [%s] needs all classes, disable the incremental scope and sharding"
+                    .formatted(delegate.getDescription()));
+        }
+        var store = new CompactViolationStore(Path.of(ArchSettings.get(DIR_KEY, CompactViolationStore.DEFAULT_PATH)),
+                refreeze || ArchSettings.getBoolean(ALLOW_CREATION_KEY, false));
+        store.checkExists();
+        var result = delegate.evaluate(classes);
+        var violations = result.getFailureReport().getDetails();
+        if (violations.stream().anyMatch(ViolationStream::isOmissionNote)) {
+            violations = ViolationStream.violationsOf(delegate);
+        }
+        if (!store.contains(delegate) && partial) {
+            return result;
+        }
+        if (!store.contains(delegate) || refreeze) {
+            store.save(delegate, violations);
+            return new EvaluationResult(delegate, ConditionEvents.Factory.create(), result.getPriority());
+        }
+
+        var baseline = new HashSet<>(store.getViolations(delegate));
+        var seen = new HashSet<String>(baseline.size() * 2);
+        var events = ConditionEvents.Factory.create();
+        for (var violation : violations) {
+            if (ViolationStream.isOmissionNote(violation)) {
+                continue;
+            }
+            var normalized = CompactViolationStore.normalize(violation);
+            if (baseline.contains(normalized)) {
+                seen.add(normalized);
+            } else {
+                events.add(SimpleConditionEvent.violated(violation, violation));
+            }
+        }
+        if (seen.size() < baseline.size() && !partial) {
+            store.save(delegate, new ArrayList<>(seen));
+        }
+        return new EvaluationResult(delegate, events, result.getPriority());
+    }
+
+    @Override
+    public ArchRule because(String reason) {
+        return new BaselineArchRule(delegate.because(reason));
+    }
+
+    @Override
+    public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+        return new BaselineArchRule(delegate.allowEmptyShould(allowEmptyShould));
+    }
+
+    @Override
+    public ArchRule as(String newDescription) {
+        return new BaselineArchRule(delegate.as(newDescription));
+    }
+
+    @Override
+    public String getDescription() {
+        return delegate.getDescription();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaAccess;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaConstructorCall;
+import com.tngtech.archunit.core.domain.JavaFieldAccess;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A BlockingCalls classifies accesses to APIs that block the calling thread on I/O.
+ *
+ * Accesses are classified by the operation and not by the package of the target, so that building a value like
+ * {@literal URI.create}, {@literal Path.of}, {@literal new File} or {@literal URLEncoder.encode} is not blocking, whereas
+ * {@literal Files.*}, opening a URL or a socket and reading from or writing to a stream is.
+ *
+ * @author Heiko Scherrer
+ */
+final class BlockingCalls {
+
+    private static final Map<String, Set<String>> BLOCKING_METHODS = Map.ofEntries(
+            Map.entry("java.io.File", Set.of("exists", "isFile", "isDirectory", "isHidden", "length", "lastModified", "list",
+                    "listFiles", "delete", "mkdir", "mkdirs", "createNewFile", "createTempFile", "renameTo", "canRead", "canWrite",
+                    "canExecute", "getCanonicalPath", "getCanonicalFile", "setLastModified")),
+            Map.entry("java.nio.file.Path", Set.of("toRealPath", "register")),
+            Map.entry("java.net.URL", Set.of("openStream", "openConnection", "getContent")),
+            Map.entry("java.net.URLConnection", Set.of("connect", "getInputStream", "getOutputStream", "getContent",
+                    "getResponseCode", "getResponseMessage", "getHeaderField", "getHeaderFields")),
+            Map.entry("java.net.Socket", Set.of("connect", "getInputStream", "getOutputStream")),
+            Map.entry("java.net.ServerSocket", Set.of("accept")),
+            Map.entry("java.net.DatagramSocket", Set.of("connect", "receive", "send")),
+            Map.entry("java.net.InetAddress", Set.of("getByName", "getAllByName", "getLocalHost", "getHostName",
+                    "getCanonicalHostName", "isReachable")),
+            Map.entry("java.net.http.HttpClient", Set.of("send")),
+            Map.entry("java.nio.channels.Channel", Set.of("read", "write", "accept", "connect", "finishConnect", "receive", "send",
+                    "transferTo", "transferFrom", "force", "lock")),
+            Map.entry("java.nio.channels.FileChannel", Set.of("open")),
+            Map.entry("java.nio.channels.Selector", Set.of("select")));
+    private static final String[] STREAM_TYPES = {"java.io.InputStream", "java.io.OutputStream", "java.io.Reader", "java.io.Writer"};
+    private static final Set<String> FILE_OPENING_TYPES = Set.of("java.io.FileInputStream", "java.io.FileOutputStream",
+            "java.io.FileReader", "java.io.FileWriter", "java.io.RandomAccessFile", "java.util.zip.ZipFile", "java.util.jar.JarFile");
+    private static final String[] JDBC_TYPES = {"org.springframework.jdbc.core.JdbcOperations",
+            "org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations", "org.springframework.jdbc.core.simple.JdbcClient"};
+    private static final String[] HTTP_TYPES = {"org.springframework.web.client.RestOperations",
+            "org.springframework.web.client.RestClient"};
+
+    private BlockingCalls() {}
+
+    /**
+     * Checks whether the access calls JDBC, either the interfaces of {@literal java.sql}/{@literal javax.sql}, like the
+     * {@literal Connection} or the {@literal DataSource}, the {@literal DriverManager} or Spring's JDBC templates. Value
+     * types like {@literal java.sql.Timestamp} are not JDBC calls.
+     *
+     * @param access The access
+     * @return {@literal true} if JDBC
+     */
+    static boolean isJdbc(JavaAccess<?> access) {
+        if (access instanceof JavaFieldAccess || access instanceof JavaConstructorCall) {
+            return false;
+        }
+        var owner = access.getTargetOwner();
+        var name = owner.getName();
+        return (name.startsWith("java.sql.") || name.startsWith("javax.sql.")) && (owner.isInterface() || name.equals("java.sql.DriverManager"))
+                || isAssignableToAny(owner, JDBC_TYPES);
+    }
+
+    /**
+     * Checks whether the access targets a blocking HTTP client, like the {@literal RestTemplate}.
+     *
+     * @param access The access
+     * @return {@literal true} if blocking HTTP
+     */
+    static boolean isBlockingHttp(JavaAccess<?> access) {
+        return !(access instanceof JavaFieldAccess || access instanceof JavaConstructorCall)
+                && isAssignableToAny(access.getTargetOwner(), HTTP_TYPES);
+    }
+
+    /**
+     * Checks whether the access performs blocking I/O: JDBC, blocking HTTP, any operation of {@literal Files}, file system
+     * operations of {@literal File}, opening files, URLs, sockets and channels, name resolution and reading from or writing to
+     * streams. Operations that only build a value, like {@literal URI.create}, {@literal Path.of}, {@literal new File} or
+     * {@literal URLEncoder.encode}, and in-memory streams and readers are not considered blocking.
+     *
+     * @param access The access
+     * @return {@literal true} if blocking I/O
+     */
+    static boolean isBlockingIo(JavaAccess<?> access) {
+        if (access instanceof JavaFieldAccess) {
+            return false;
+        }
+        var owner = access.getTargetOwner();
+        var name = access.getName();
+        if (owner.getName().equals("java.nio.file.Files")) {
+            return true;
+        }
+        if (access instanceof JavaConstructorCall call) {
+            return FILE_OPENING_TYPES.contains(owner.getName())
+                    || owner.isAssignableTo("java.net.Socket") && !call.getTarget().getRawParameterTypes().isEmpty();
+        }
+        for (var entry : BLOCKING_METHODS.entrySet()) {
+            if (entry.getValue().contains(name) && owner.isAssignableTo(entry.getKey())) {
+                return true;
+            }
+        }
+        if (isAssignableToAny(owner, STREAM_TYPES) && !isInMemoryIo(owner.getName())) {
+            return name.startsWith("read") || name.startsWith("write") || name.startsWith("skip") || name.startsWith("print")
+                    || "flush".equals(name) || "transferTo".equals(name) || "append".equals(name) || "format".equals(name)
+                    || "newLine".equals(name);
+        }
+        return isJdbc(access) || isBlockingHttp(access);
+    }
+
+    /**
+     * Checks whether the access is a call of {@link Thread#sleep}.
+     *
+     * @param access The access
+     * @return {@literal true} if sleeping
+     */
+    static boolean isThreadSleep(JavaAccess<?> access) {
+        return "sleep".equals(access.getName()) && access.getTargetOwner().isEquivalentTo(Thread.class);
+    }
+
+    /**
+     * Checks whether the access waits for the result of another thread, like {@link java.util.concurrent.Future#get} or
+     * {@link java.util.concurrent.CompletableFuture#join}, or for a latch or a process.
+     *
+     * @param access The access
+     * @return {@literal true} if waiting
+     */
+    static boolean isWaiting(JavaAccess<?> access) {
+        var name = access.getName();
+        var owner = access.getTargetOwner();
+        return ("get".equals(name) || "join".equals(name)) && owner.isAssignableTo("java.util.concurrent.Future")
+                || "await".equals(name) && owner.getPackageName().equals("java.util.concurrent")
+                || "waitFor".equals(name) && owner.isAssignableTo(Process.class);
+    }
+
+    /**
+     * Checks whether the access reads a resource from the classpath or starts a process, both touch the file system.
+     *
+     * @param access The access
+     * @return {@literal true} if loading resources
+     */
+    static boolean isResourceLoading(JavaAccess<?> access) {
+        var name = access.getName();
+        var owner = access.getTargetOwner();
+        return name.startsWith("getResource") && (owner.isEquivalentTo(Class.class) || owner.isAssignableTo(ClassLoader.class))
+                || "exec".equals(name) && owner.isEquivalentTo(Runtime.class)
+                || "start".equals(name) && owner.isEquivalentTo(ProcessBuilder.class);
+    }
+
+    /**
+     * Returns a description of the access for violation messages, like {@literal Thread.sleep(long) (Foo.java:42)}.
+     *
+     * @param access The access
+     * @return The description
+     */
+    static String describe(JavaAccess<?> access) {
+        return "%s.%s %s".formatted(access.getTargetOwner().getSimpleName(), access.getName(), access.getSourceCodeLocation());
+    }
+
+    private static boolean isInMemoryIo(String name) {
+        if (!name.startsWith("java.io.")) {
+            return false;
+        }
+        var simpleName = name.substring("java.io.".length());
+        return simpleName.startsWith("ByteArray") || simpleName.startsWith("CharArray") || simpleName.startsWith("String");
+    }
+
+    private static boolean isAssignableToAny(JavaClass owner, String[] typeNames) {
+        for (var typeName : typeNames) {
+            if (owner.isAssignableTo(typeName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import org.objectweb.asm.Opcodes;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A ClassHeader is the header of a class file: its name, modifiers, supertypes, annotations and fields, without any method
+ * code and without resolving the referenced types.
+ *
+ * @param name The fully qualified name
+ * @param access The access flags as defined by {@link Opcodes}
+ * @param superName The fully qualified name of the superclass or {@literal null}
+ * @param interfaces The fully qualified names of the implemented interfaces
+ * @param annotations The fully qualified names of the annotations on the class
+ * @param fields The fields of the class
+ * @param sourceFile The name of the source file or {@literal null} if not compiled with debug information
+ * @param uri The URI of the class file, like the import options see it
+ * @author Heiko Scherrer
+ */
+public record ClassHeader(String name, int access, String superName, List<String> interfaces, Set<String> annotations,
+                          List<Field> fields, String sourceFile, URI uri) {
+
+    /**
+     * The header of a field.
+     *
+     * @param name The name
+     * @param access The access flags as defined by {@link Opcodes}
+     * @param typeName The fully qualified name of the raw type
+     */
+    public record Field(String name, int access, String typeName) {
+
+        /** Checks whether the field is private. */
+        public boolean isPrivate() {
+            return (access & Opcodes.ACC_PRIVATE) != 0;
+        }
+
+        /** Checks whether the field is static. */
+        public boolean isStatic() {
+            return (access & Opcodes.ACC_STATIC) != 0;
+        }
+
+        /** Checks whether the field is final. */
+        public boolean isFinal() {
+            return (access & Opcodes.ACC_FINAL) != 0;
+        }
+    }
+
+    /**
+     * Returns the simple name like ArchUnit does: for nested classes without the enclosing class, for local classes without
+     * the leading number and empty for anonymous classes.
+     */
+    public String simpleName() {
+        var simpleName = name.substring(name.lastIndexOf('.') + 1);
+        simpleName = simpleName.substring(simpleName.lastIndexOf('$') + 1);
+        for (var i = 0; i < simpleName.length(); i++) {
+            if (Character.isJavaIdentifierStart(simpleName.charAt(i))) {
+                return simpleName.substring(i);
+            }
+        }
+        return "";
+    }
+
+    /** Returns the package name, empty for the default package. */
+    public String packageName() {
+        var index = name.lastIndexOf('.');
+        return index < 0 ? "" : name.substring(0, index);
+    }
+
+    /** Checks whether the class is abstract, that is also true for interfaces. */
+    public boolean isAbstract() {
+        return (access & Opcodes.ACC_ABSTRACT) != 0;
+    }
+
+    /** Checks whether the class is directly annotated with the annotation of the given fully qualified name. */
+    public boolean isAnnotatedWith(String annotationName) {
+        return annotations.contains(annotationName);
+    }
+
+    /**
+     * Returns the source code location in the format ArchUnit uses in violation messages, like {@literal (Foo.java:0)}.
+     * Without debug information the source file is named by the top level class.
+     *
+     * @return The location
+     */
+    public String location() {
+        if (sourceFile != null) {
+            return "(%s:0)".formatted(sourceFile);
+        }
+        var topLevelName = name.substring(name.lastIndexOf('.') + 1);
+        var index = topLevelName.indexOf('$');
+        return "(%s.java:0)".formatted(index < 0 ? topLevelName : topLevelName.substring(0, index));
+    }
+}
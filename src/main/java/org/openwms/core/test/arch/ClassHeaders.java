@@ -0,0 +1,235 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A ClassHeaders reads the {@link ClassHeader}s of class files with ASM, skipping the code of all methods.
+ *
+ * Rules that look at single classes, their annotations and fields only, do not need the dependency graph that ArchUnit
+ * builds and resolves on import. The headers of the {@link ScanScope} are read in parallel and kept until
+ * {@link ImportSession#reset()}, and narrowed to the current {@link Shard} and {@link IncrementalScope} like the class-local
+ * ArchUnit rules, see {@link HeaderRules}.
+ *
+ * @author Heiko Scherrer
+ */
+public final class ClassHeaders {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassHeaders.class);
+    private static final String CLASS_FILE = ".class";
+    private static volatile List<ClassHeader> headers;
+
+    private ClassHeaders() {}
+
+    /**
+     * Returns the headers of the classes of the {@link ScanScope}, with the same import options as the rule classes, read on
+     * the first call and reused afterwards, see {@link #inScope(List)}.
+     *
+     * @return The headers
+     */
+    public static List<ClassHeader> ofScope() {
+        return inScope(all());
+    }
+
+    private static List<ClassHeader> all() {
+        var result = headers;
+        if (result == null) {
+            synchronized (ClassHeaders.class) {
+                result = headers;
+                if (result == null) {
+                    var start = System.nanoTime();
+                    result = scan(ScanScope.locations(), List.of(new ImportOption.DoNotIncludeTests(),
+                            new ImportOption.DoNotIncludeJars(), new ScanScope.Filter()));
+                    LOGGER.debug("Read [{}] class headers in [{}] ms", result.size(), (System.nanoTime() - start) / 1_000_000);
+                    headers = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the headers of the {@link ScanScope}, called by {@link ImportSession#reset()}.
+     */
+    static synchronized void clear() {
+        headers = null;
+    }
+
+    /**
+     * Narrows the given headers to the ones of the current {@link Shard} and, in incremental mode, to the ones of the classes
+     * changed since the baseline. The header rules check each class on its own, so unlike the class-local ArchUnit rules the
+     * dependents of changed classes need not be evaluated again.
+     *
+     * @param classHeaders The headers to narrow
+     * @return The headers to evaluate
+     */
+    public static List<ClassHeader> inScope(List<ClassHeader> classHeaders) {
+        var sharded = Shard.isEnabled();
+        var incremental = IncrementalScope.isEnabled();
+        if (!sharded && !incremental) {
+            return classHeaders;
+        }
+        var scope = incremental ? IncrementalScope.get() : null;
+        return classHeaders.stream()
+                .filter(h -> !sharded || Shard.includes(h.name()))
+                .filter(h -> scope == null || scope.isChanged(h.name(), h.uri()))
+                .toList();
+    }
+
+    /**
+     * Reads the headers of all class files in the given locations that are included by all import options.
+     *
+     * @param locations Directories or jar entries, as {@link com.tngtech.archunit.core.importer.Locations} returns them
+     * @param options The import options to apply
+     * @return The headers
+     * @throws UncheckedIOException If a location cannot be read
+     */
+    public static List<ClassHeader> scan(Collection<Location> locations, Collection<ImportOption> options) {
+        var classFiles = new ArrayList<URI>();
+        for (var location : locations) {
+            classFiles.addAll(classFilesOf(location.asURI()));
+        }
+        return classFiles.parallelStream()
+                .map(Location::of)
+                .filter(location -> isIncluded(location, options))
+                .map(location -> read(location.asURI()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static boolean isIncluded(Location location, Collection<ImportOption> options) {
+        for (var option : options) {
+            if (!option.includes(location)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<URI> classFilesOf(URI location) {
+        try {
+            if ("jar".equals(location.getScheme())) {
+                var connection = (JarURLConnection) location.toURL().openConnection();
+                connection.setUseCaches(false);
+                var prefix = connection.getEntryName() == null ? "" : connection.getEntryName();
+                var jarUri = connection.getJarFileURL().toURI();
+                try (var jar = connection.getJarFile()) {
+                    return jar.stream()
+                            .filter(e -> e.getName().startsWith(prefix) && e.getName().endsWith(CLASS_FILE))
+                            .map(e -> URI.create("jar:" + jarUri + "!/" + e.getName()))
+                            .toList();
+                }
+            }
+            var root = Path.of(location);
+            if (!Files.isDirectory(root)) {
+                return root.toString().endsWith(CLASS_FILE) ? List.of(location) : List.of();
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                return files.filter(p -> p.toString().endsWith(CLASS_FILE)).map(Path::toUri).toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list class files of " + location, e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Cannot list class files of " + location, e);
+        }
+    }
+
+    private static ClassHeader read(URI classFile) {
+        try (InputStream in = classFile.toURL().openStream()) {
+            var collector = new HeaderCollector();
+            new ClassReader(in).accept(collector, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+            return collector.toHeader(classFile);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Cannot read class file [{}]: [{}]", classFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String className(String internalName) {
+        return internalName == null ? null : internalName.replace('/', '.');
+    }
+
+    private static final class HeaderCollector extends ClassVisitor {
+
+        private String name;
+        private int access;
+        private String superName;
+        private List<String> interfaces = List.of();
+        private final HashSet<String> annotations = new HashSet<>();
+        private final List<ClassHeader.Field> fields = new ArrayList<>();
+        private String sourceFile;
+
+        HeaderCollector() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.name = className(name);
+            this.access = access;
+            this.superName = className(superName);
+            this.interfaces = Arrays.stream(interfaces).map(ClassHeaders::className).toList();
+        }
+
+        @Override
+        public void visitSource(String source, String debug) {
+            this.sourceFile = source;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            annotations.add(Type.getType(descriptor).getClassName());
+            return null;
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            fields.add(new ClassHeader.Field(name, access, Type.getType(descriptor).getClassName()));
+            return null;
+        }
+
+        ClassHeader toHeader(URI uri) {
+            return new ClassHeader(name, access, superName, interfaces, Set.copyOf(annotations), List.copyOf(fields), sourceFile, uri);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.library.freeze.ViolationStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * A CompactViolationStore is a {@link ViolationStore} that keeps one file per rule with the normalized violations, sorted
+ * and without duplicates.
+ *
+ * Violations are normalized the way ArchUnit's default line matcher compares them: line numbers of source locations and
+ * the numbers of anonymous classes and lambdas are replaced with {@literal 0}. Because of that, normalized violations can be compared by
+ * equality, and moving code around neither changes the baseline nor produces a diff. The file of a rule is named by a hash
+ * of the rule description and starts with the description as comment.
+ *
+ * To use it with ArchUnit's {@link com.tngtech.archunit.library.freeze.FreezingArchRule} configure
+ * {@literal freeze.store=org.openwms.core.test.arch.CompactViolationStore} in {@literal archunit.properties}. The
+ * {@link BaselineArchRule} uses it directly and compares in linear time.
+ *
+ * @author Heiko Scherrer
+ */
+public final class CompactViolationStore implements ViolationStore {
+
+    /** The property with the directory of the store, passed by ArchUnit as {@literal freeze.store.default.path}. */
+    public static final String PATH_PROPERTY = "default.path";
+    /** The property that allows updates of the store, passed by ArchUnit as {@literal freeze.store.default.allowStoreUpdate}. */
+    public static final String ALLOW_UPDATE_PROPERTY = "default.allowStoreUpdate";
+    /** The property that allows creating a missing store, passed by ArchUnit as {@literal freeze.store.default.allowStoreCreation}. */
+    public static final String ALLOW_CREATION_PROPERTY = "default.allowStoreCreation";
+    /** The default directory of the store. */
+    public static final String DEFAULT_PATH = "archunit-baseline";
+    private static final String COMMENT = "# ";
+
+    private Path directory = Path.of(DEFAULT_PATH);
+    private boolean updateAllowed = true;
+    private boolean creationAllowed = false;
+
+    /**
+     * Creates a store in the {@value #DEFAULT_PATH} directory, as ArchUnit does before calling {@link #initialize(Properties)}.
+     */
+    public CompactViolationStore() {
+    }
+
+    /**
+     * Creates a store in the given directory.
+     *
+     * @param directory The directory of the store
+     * @param creationAllowed Whether the directory may be created if it does not exist
+     */
+    public CompactViolationStore(Path directory, boolean creationAllowed) {
+        this.directory = directory;
+        this.creationAllowed = creationAllowed;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Like ArchUnit's default store, a missing store is only created with {@value #ALLOW_CREATION_PROPERTY} set to
+     * {@literal true}. Otherwise a build without the committed baseline would record all current violations and pass.
+     *
+     * @throws IllegalStateException If the store does not exist and must not be created
+     */
+    @Override
+    public void initialize(Properties properties) {
+        directory = Path.of(properties.getProperty(PATH_PROPERTY, DEFAULT_PATH));
+        updateAllowed = Boolean.parseBoolean(properties.getProperty(ALLOW_UPDATE_PROPERTY, "true"));
+        creationAllowed = Boolean.parseBoolean(properties.getProperty(ALLOW_CREATION_PROPERTY, "false"));
+        checkExists();
+    }
+
+    /**
+     * Checks whether the store exists or may be created.
+     *
+     * @throws IllegalStateException If the store does not exist and must not be created
+     */
+    public void checkExists() {
+        if (!creationAllowed && !Files.isDirectory(directory)) {
+            throw new IllegalStateException("The violation store %s does not exist and creating it is disabled, enable it with freeze.store.%s=true or commit the baseline"
+                    .formatted(directory.toAbsolutePath(), ALLOW_CREATION_PROPERTY));
+        }
+    }
+
+    @Override
+    public boolean contains(ArchRule rule) {
+        return Files.exists(fileOf(rule));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException If updates of the store are not allowed or the store does not exist and must not be created
+     * @throws UncheckedIOException If the file cannot be written
+     */
+    @Override
+    public void save(ArchRule rule, List<String> violations) {
+        checkExists();
+        if (!updateAllowed) {
+            throw new IllegalStateException("Updating the violation store in %s is not allowed, rule: %s"
+                    .formatted(directory, rule.getDescription()));
+        }
+        var lines = new ArrayList<String>(violations.size() + 1);
+        lines.add(COMMENT + escape(rule.getDescription()));
+        for (var violation : normalizeAll(violations)) {
+            lines.add(escape(violation));
+        }
+        var file = fileOf(rule);
+        try {
+            Files.createDirectories(directory);
+            var tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot save violations of rule to " + file, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The normalized violations, sorted
+     * @throws UncheckedIOException If the file cannot be read
+     */
+    @Override
+    public List<String> getViolations(ArchRule rule) {
+        var file = fileOf(rule);
+        try {
+            var lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            var violations = new ArrayList<String>(lines.size());
+            for (var line : lines) {
+                if (!line.startsWith(COMMENT) && !line.isEmpty()) {
+                    violations.add(unescape(line));
+                }
+            }
+            return violations;
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read violations of rule from " + file, e);
+        }
+    }
+
+    /**
+     * Returns the file the violations of the given rule are stored in.
+     *
+     * @param rule The rule
+     * @return The file
+     */
+    public Path fileOf(ArchRule rule) {
+        return directory.resolve("%016x.txt".formatted(fnv1a(rule.getDescription())));
+    }
+
+    /**
+     * Normalizes the given violations, sorted and without duplicates.
+     *
+     * @param violations The violations
+     * @return The normalized violations
+     */
+    static Collection<String> normalizeAll(Collection<String> violations) {
+        var normalized = new TreeSet<String>();
+        for (var violation : violations) {
+            normalized.add(normalize(violation));
+        }
+        return normalized;
+    }
+
+    /**
+     * Replaces the numbers ArchUnit's default line matcher ignores with {@literal 0}: the line of a
+     * {@literal (Foo.java:42)} source location and the numbers following a {@literal $}, like in {@literal Foo$1} or
+     * {@literal lambda$bar$3}.
+     *
+     * @param violation The violation
+     * @return The normalized violation
+     */
+    static String normalize(String violation) {
+        StringBuilder result = null;
+        var length = violation.length();
+        var copied = 0;
+        for (var i = 0; i < length; i++) {
+            var c = violation.charAt(i);
+            int digitsFrom;
+            if (c == '$') {
+                digitsFrom = i + 1;
+            } else if (c == ':' && i >= 5 && violation.startsWith(".java", i - 5)) {
+                digitsFrom = i + 1;
+            } else {
+                continue;
+            }
+            var digitsTo = digitsFrom;
+            while (digitsTo < length && Character.isDigit(violation.charAt(digitsTo))) {
+                digitsTo++;
+            }
+            if (digitsTo > digitsFrom) {
+                if (result == null) {
+                    result = new StringBuilder(length);
+                }
+                result.append(violation, copied, digitsFrom).append('0');
+                copied = digitsTo;
+                i = digitsTo - 1;
+            }
+        }
+        if (result == null) {
+            return violation;
+        }
+        return result.append(violation, copied, length).toString();
+    }
+
+    private static long fnv1a(String value) {
+        var hash = 0xcbf29ce484222325L;
+        for (var i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        var result = new StringBuilder(value.length());
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                var next = value.charAt(++i);
+                result.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaConstructor;
+import com.tngtech.archunit.core.domain.JavaField;
+import com.tngtech.archunit.core.domain.JavaFieldAccess;
+import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.CacheMode;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.openwms.core.test.arch.SpringPredicates.areSingletonBeans;
+import static org.openwms.core.test.arch.SpringPredicates.areSpringBeansButNoControllers;
+
+/**
+ * A ConcurrencyRules class defines rules for the state and the locks of singleton Spring Beans, that are shared by all
+ * request threads.
+ *
+ * @author Heiko Scherrer
+ */
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
+        ImportOption.DoNotIncludeTests.class,
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
+})
+public final class ConcurrencyRules {
+
+    /** Maximum number of methods of a bean that may synchronize on the same lock. */
+    public static final String MAX_METHODS_PER_LOCK_KEY = "concurrency.maxMethodsPerLock";
+    /** Non thread-safe types and their thread-safe alternatives, checked in this order. */
+    private static final Map<String, String> ALTERNATIVES = new LinkedHashMap<>();
+    private static final Set<String> MUTATING_METHODS = Set.of("put", "putAll", "putIfAbsent", "computeIfAbsent", "computeIfPresent",
+            "compute", "merge", "remove", "removeIf", "removeAll", "retainAll", "replaceAll", "clear", "add", "addAll", "addFirst",
+            "addLast", "offer", "push", "poll", "pop", "set", "sort", "append", "insert", "delete", "setLength", "format", "parse",
+            "setTime", "setTimeInMillis", "setTimeZone");
+    private static final Set<String> UNTRACKED_LOCKS = Set.of("local variable", "unknown");
+
+    static {
+        ALTERNATIVES.put("java.util.TreeMap", "a ConcurrentSkipListMap");
+        ALTERNATIVES.put("java.util.HashMap", "a ConcurrentHashMap");
+        ALTERNATIVES.put("java.util.TreeSet", "a ConcurrentSkipListSet");
+        ALTERNATIVES.put("java.util.HashSet", "ConcurrentHashMap.newKeySet()");
+        ALTERNATIVES.put("java.util.ArrayList", "a CopyOnWriteArrayList or an immutable copy that is replaced as a whole");
+        ALTERNATIVES.put("java.util.LinkedList", "a ConcurrentLinkedDeque");
+        ALTERNATIVES.put("java.util.ArrayDeque", "a ConcurrentLinkedDeque");
+        ALTERNATIVES.put("java.util.PriorityQueue", "a PriorityBlockingQueue");
+        ALTERNATIVES.put("java.text.DateFormat", "a DateTimeFormatter");
+        ALTERNATIVES.put("java.util.Calendar", "the java.time API");
+        ALTERNATIVES.put("java.lang.StringBuilder", "a local variable");
+    }
+
+    private ConcurrencyRules() {}
+
+    /**
+     * Ensures that singleton Spring Beans do not modify instance fields of non thread-safe types, like HashMap, ArrayList
+     * or SimpleDateFormat, after construction.
+     *
+     * The bean is shared by all request threads, concurrent modifications corrupt the state. A field is reported if it is
+     * assigned, or its value is modified, in a method other than a constructor, a @PostConstruct method or an @Autowired
+     * setter. The type of a field declared as Map or Collection is taken from the object the field is initialized with.
+     */
+    @ArchTest
+    public static final ArchRule noMutableNonThreadSafeFieldsInSingletonBeans = ScopedArchRule.classLocal(classes()
+            .that(areSpringBeansButNoControllers)
+            .and(areSingletonBeans)
+            .should(new ArchCondition<>("not modify fields of non thread-safe types after construction") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var field : item.getFields()) {
+                        if (field.getModifiers().contains(JavaModifier.STATIC)) {
+                            continue;
+                        }
+                        implementationOf(item, field).ifPresent(type -> modificationOf(field, type).ifPresent(modifier ->
+                                events.add(SimpleConditionEvent.violated(field, "Field %s is a %s shared by all threads and modified in %s, use %s %s"
+                                        .formatted(field.getFullName(), type.getSimpleName(), modifier.getFullName(), alternativeOf(type),
+                                                field.getSourceCodeLocation())))));
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that singleton Spring Beans do not synchronize many methods on the same lock, by default not more than 3.
+     *
+     * All callers of these methods contend for the lock, also when they work on unrelated state, and the bean processes one
+     * request at a time. Synchronized methods and {@literal synchronized (this)} blocks share the lock {@literal this}. The
+     * maximum is configured with the {@value #MAX_METHODS_PER_LOCK_KEY} setting.
+     */
+    @ArchTest
+    public static final ArchRule noLocksGuardingManyMethods = ScopedArchRule.classLocal(classes()
+            .that(areSpringBeansButNoControllers)
+            .and(areSingletonBeans)
+            .should(new ArchCondition<>("not guard many methods with the same lock") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    var max = ArchSettings.getInt(MAX_METHODS_PER_LOCK_KEY, 3);
+                    for (var entry : guardedMethodsByLock(item).entrySet()) {
+                        if (entry.getValue().size() > max) {
+                            events.add(SimpleConditionEvent.violated(item, "Lock %s of %s guards %d methods %s, use one lock per guarded state, a ReadWriteLock or StampedLock, or striped per-key locking with ConcurrentHashMap.compute %s"
+                                    .formatted(entry.getKey(), item.getName(), entry.getValue().size(), entry.getValue(), item.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    private static Optional<JavaClass> implementationOf(JavaClass item, JavaField field) {
+        var type = field.getRawType();
+        if (alternativeOf(type) != null) {
+            return Optional.of(type);
+        }
+        if (!type.isAssignableTo(Map.class) && !type.isAssignableTo(Collection.class)) {
+            return Optional.empty();
+        }
+        for (var constructor : item.getConstructors()) {
+            for (var access : constructor.getFieldAccesses()) {
+                if (access.getAccessType() == JavaFieldAccess.AccessType.SET && isAccessTo(access, field)) {
+                    for (var call : constructor.getConstructorCallsFromSelf()) {
+                        var created = call.getTargetOwner();
+                        if (call.getLineNumber() == access.getLineNumber() && created.isAssignableTo(type.getName()) && alternativeOf(created) != null) {
+                            return Optional.of(created);
+                        }
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<JavaCodeUnit> modificationOf(JavaField field, JavaClass type) {
+        for (var access : field.getAccessesToSelf()) {
+            if (access.getAccessType() == JavaFieldAccess.AccessType.SET && !isInitialization(access.getOrigin())) {
+                return Optional.of(access.getOrigin());
+            }
+        }
+        for (var call : FieldValueCalls.of(field)) {
+            if (!isInitialization(call.getOrigin()) && MUTATING_METHODS.contains(call.getName())
+                    && type.isAssignableTo(call.getTargetOwner().getName())) {
+                return Optional.of(call.getOrigin());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isAccessTo(JavaFieldAccess access, JavaField field) {
+        return access.getTarget().resolveMember().filter(field::equals).isPresent();
+    }
+
+    private static boolean isInitialization(JavaCodeUnit codeUnit) {
+        return codeUnit instanceof JavaConstructor || codeUnit.isAnnotatedWith(PostConstruct.class) || codeUnit.isAnnotatedWith(Autowired.class);
+    }
+
+    private static String alternativeOf(JavaClass type) {
+        for (var entry : ALTERNATIVES.entrySet()) {
+            if (type.isAssignableTo(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Set<String>> guardedMethodsByLock(JavaClass item) {
+        var result = new TreeMap<String, Set<String>>();
+        for (var regions : MonitorScanner.regionsOf(item).values()) {
+            for (var region : regions) {
+                var lock = region.lock();
+                var member = region.member();
+                if (UNTRACKED_LOCKS.contains(lock) || lock.startsWith("result of ") || member.startsWith("<")) {
+                    continue;
+                }
+                result.computeIfAbsent(lock, k -> new TreeSet<>()).add(member.substring(0, member.indexOf('(')));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaField;
+import com.tngtech.archunit.core.domain.JavaFieldAccess;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A FieldValueCalls finds the method calls on the value of a field.
+ *
+ * ArchUnit does not record the receiver of a call. A call is taken as a call on the value of the field if the calling code
+ * unit reads the field in the same line and the field type is assignable to the owner of the called method, like
+ * {@literal cache.put(key, value)}. So calls on other objects of the same code unit, like {@literal result.add(value)}, and
+ * calls on values taken from the field, like {@literal cache.get(key).add(value)}, are not attributed to the field.
+ *
+ * @author Heiko Scherrer
+ */
+final class FieldValueCalls {
+
+    private FieldValueCalls() {}
+
+    /**
+     * Returns the method calls on the value of the given field.
+     *
+     * @param field The field
+     * @return The calls, in the order of the accesses to the field
+     */
+    static Set<JavaMethodCall> of(JavaField field) {
+        var result = new LinkedHashSet<JavaMethodCall>();
+        var type = field.getRawType();
+        for (var access : field.getAccessesToSelf()) {
+            if (access.getAccessType() != JavaFieldAccess.AccessType.GET) {
+                continue;
+            }
+            for (var call : access.getOrigin().getMethodCallsFromSelf()) {
+                if (call.getLineNumber() == access.getLineNumber() && type.isAssignableTo(call.getTargetOwner().getName())) {
+                    result.add(call);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -15,33 +15,33 @@
  */
 package org.openwms.core.test.arch;
 
-import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.importer.ImportOption;
 import com.tngtech.archunit.junit.AnalyzeClasses;
 import com.tngtech.archunit.junit.ArchTest;
 import com.tngtech.archunit.junit.CacheMode;
-import com.tngtech.archunit.lang.ArchCondition;
 import com.tngtech.archunit.lang.ArchRule;
-import com.tngtech.archunit.lang.ConditionEvents;
-import com.tngtech.archunit.lang.SimpleConditionEvent;
+import org.openwms.core.test.arch.NamingConventions.NameMatcher;
 import org.slf4j.Logger;
 
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.fields;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
-import static com.tngtech.archunit.library.dependencies.SlicesRuleDefinition.slices;
 
 /**
  * A GlobalRules class defines various rules not tight to any library nor architectural layer.
  *
  * @author Heiko Scherrer
  */
-@AnalyzeClasses(packages = "org.openwms", cacheMode = CacheMode.PER_CLASS, importOptions = {
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
         ImportOption.DoNotIncludeTests.class,
-        ImportOption.DoNotIncludeJars.class
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
 })
 public final class GlobalRules {
 
+    private static final String SLICES = "org.openwms.(*)..";
+
     private GlobalRules() {}
 
     /**
@@ -50,10 +50,13 @@ public final class GlobalRules {
      *
      * This rule applies to slices that match the pattern "org.openwms.(*)..". It checks for
      * cyclic dependencies within this pattern to ensure that there are no circular dependencies,
-     * enforcing a more maintainable and modular architecture.
+     * enforcing a more maintainable and modular architecture. The {@link SliceCycleCondition} reports one representative
+     * cycle per group of cyclic slices instead of enumerating all cycle paths.
      */
     @ArchTest
-    public static final ArchRule slicesFreeOfCycles = slices().matching("org.openwms.(*)..").should().beFreeOfCycles();
+    public static final ArchRule slicesFreeOfCycles = ScopedArchRule.sliced(
+            classes().should(SliceCycleCondition.beFreeOfSliceCycles(SLICES)).as("slices matching '%s' should be free of cycles".formatted(SLICES)),
+            SLICES);
 
     /**
      * ArchRule to ensure that classes within the "api" package do not depend on classes within the "impl" package.
@@ -64,14 +67,14 @@ public final class GlobalRules {
      * The rationale behind this rule is to enforce a clean architecture where internal implementation changes do not impact the external API.
      */
     @ArchTest
-    public static final ArchRule apiImplDependenciesNotAllowed = noClasses()
+    public static final ArchRule apiImplDependenciesNotAllowed = ScopedArchRule.classLocal(noClasses()
             .that()
             .resideInAPackage("..api..")
             .should()
             .dependOnClassesThat()
             .resideInAPackage("..impl..")
             .because("The API package is exposed to the client and should never expose internals")
-            .allowEmptyShould(true);
+            .allowEmptyShould(true));
 
     /**
      * ArchRule to ensure that Logger fields follow a specific definition pattern.
@@ -83,47 +86,35 @@ public final class GlobalRules {
      * class they are defined in.
      */
     @ArchTest
-    public static final ArchRule verify_logger_definition =
+    public static final ArchRule verify_logger_definition = ScopedArchRule.classLocal(
             fields().that().haveRawType(Logger.class)
                     .should().bePrivate()
                     .andShould().beStatic()
                     .andShould().beFinal()
                     .because("This a defined logger definition")
-                    .allowEmptyShould(true);
+                    .allowEmptyShould(true));
 
     /**
      * Usually the JLS allows also numeric values in the type name {@literal [$_a-zA-Z][$_a-zA-Z0-9]*}. Here we don't.
      */
     @ArchTest
-    public static final ArchRule verify_type_names =
+    public static final ArchRule verify_type_names = ScopedArchRule.classLocal(
             classes()
-                    .should(new ArchCondition<>("have a name without numeric values") {
-                        @Override
-                        public void check(JavaClass item, ConditionEvents events) {
-                            if (!"".equals(item.getSimpleName()) && !" ".equals(item.getSimpleName()) &&
-                                !item.getSimpleName().matches("(package-info|[A-Z][_$a-zA-Z]+)")) {
-                                events.add(SimpleConditionEvent.violated(item, "Class %s contains numeric values".formatted(item.getSimpleName())));
-                            }
-                        }
-                    })
+                    .should(NamingConventions.haveSimpleNameMatching("have a name without numeric values",
+                            NameMatcher.isAnyOf("", " ").or(NamingConventions.TYPE_NAME_WITHOUT_DIGITS),
+                            "Class %s contains numeric values"))
                     .because("it must be aligned with the JLS (https://docs.oracle.com/javase/specs/jls/se21/html/jls-6.html#jls-6.5.5.1)")
-                    .allowEmptyShould(true);
+                    .allowEmptyShould(true));
 
     /**
      * Prefixing interfaces with an 'I' is not a practise in Java. For example: IOrderService.
      */
     @ArchTest
-    public static final ArchRule verify_no_I_prefix_on_interfaces =
+    public static final ArchRule verify_no_I_prefix_on_interfaces = ScopedArchRule.classLocal(
             classes()
                     .that().areInterfaces()
-                    .should(new ArchCondition<>("have a name not prefixed with an I") {
-                        @Override
-                        public void check(JavaClass item, ConditionEvents events) {
-                            if (item.getSimpleName().matches("(I[A-Z][a-z$_]).*")) {
-                                events.add(SimpleConditionEvent.violated(item, "Interface %s must not be prefixed with I".formatted(item.getSimpleName())));
-                            }
-                        }
-                    })
+                    .should(NamingConventions.haveSimpleNameNotMatching("have a name not prefixed with an I",
+                            NamingConventions.I_PREFIXED, "Interface %s must not be prefixed with I"))
                     .because("prefixing interfaces with an I is a common rule in the .NET world but not in Java")
-                    .allowEmptyShould(true);
+                    .allowEmptyShould(true));
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A HeaderRule is a rule on single {@link ClassHeader}s, that is evaluated without an ArchUnit import.
+ *
+ * @author Heiko Scherrer
+ */
+public final class HeaderRule {
+
+    private final String description;
+    private final Predicate<ClassHeader> selection;
+    private final Function<ClassHeader, List<String>> check;
+
+    private HeaderRule(String description, Predicate<ClassHeader> selection, Function<ClassHeader, List<String>> check) {
+        this.description = description;
+        this.selection = selection;
+        this.check = check;
+    }
+
+    /**
+     * Creates a rule that checks each selected class.
+     *
+     * @param description The description, like the one of the corresponding ArchUnit rule
+     * @param selection Selects the classes to check
+     * @param check Returns the violations of a selected class, an empty list if there are none
+     * @return The rule
+     */
+    public static HeaderRule of(String description, Predicate<ClassHeader> selection, Function<ClassHeader, List<String>> check) {
+        return new HeaderRule(description, selection, check);
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Evaluates the rule.
+     *
+     * @param headers The headers of the classes to evaluate
+     * @return The violations
+     */
+    public List<String> evaluate(Collection<ClassHeader> headers) {
+        var violations = new ArrayList<String>();
+        for (var header : headers) {
+            if (selection.test(header)) {
+                violations.addAll(check.apply(header));
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Returns the failure message in the format of ArchUnit.
+     *
+     * @param violations The violations of {@link #evaluate(Collection)}
+     * @return The message, empty if there are no violations
+     */
+    public String failureMessage(List<String> violations) {
+        if (violations.isEmpty()) {
+            return "";
+        }
+        return "Architecture Violation [Priority: MEDIUM] - Rule '%s' was violated (%d times):%n%s"
+                .formatted(description, violations.size(), String.join(System.lineSeparator(), violations));
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A HeaderRules class defines the rules of this library that only need the {@link ClassHeader}s, evaluated without the
+ * ArchUnit import and dependency resolution.
+ *
+ * Each rule corresponds to an ArchUnit rule of the same name listed in {@link #REPLACED}, so that a build evaluates the
+ * header rules on their own and the remaining rules with the full import, like {@link #checkLibrary()} does. The violation
+ * messages are the ones of the ArchUnit rules, so that frozen violations and reports do not change.
+ *
+ * @author Heiko Scherrer
+ */
+public final class HeaderRules {
+
+    /** The names of the ArchUnit rules in the {@link ArchRuleSuite} that the header rules replace. */
+    public static final List<String> REPLACED = List.of(
+            "EntityClassRules.entitiesMustHaveTableAnnotation",
+            "SpringRules.configurationsShouldBeNamedConfiguration",
+            "PresentationRules.notUseDTONaming",
+            "GlobalRules.verify_logger_definition");
+    private static final String ENTITY = "jakarta.persistence.Entity";
+    private static final String TABLE = "jakarta.persistence.Table";
+    private static final String DISCRIMINATOR_VALUE = "jakarta.persistence.DiscriminatorValue";
+    private static final String CONFIGURATION = "org.springframework.context.annotation.Configuration";
+    private static final String PUBLIC = "org.ameba.annotation.Public";
+    private static final String LOGGER = "org.slf4j.Logger";
+
+    private HeaderRules() {}
+
+    /**
+     * Same as {@literal EntityClassRules.entitiesMustHaveTableAnnotation}.
+     */
+    public static final HeaderRule entitiesMustHaveTableAnnotation = HeaderRule.of(
+            "classes that do not have modifier ABSTRACT and are annotated with @Entity and are not annotated with @DiscriminatorValue should be annotated with @Table",
+            h -> !h.isAbstract() && h.isAnnotatedWith(ENTITY) && !h.isAnnotatedWith(DISCRIMINATOR_VALUE),
+            h -> h.isAnnotatedWith(TABLE)
+                    ? List.of()
+                    : List.of("Class <%s> is not annotated with @Table in %s".formatted(h.name(), h.location())));
+
+    /**
+     * Same as {@literal SpringRules.configurationsShouldBeNamedConfiguration}.
+     */
+    public static final HeaderRule configurationsShouldBeNamedConfiguration = HeaderRule.of(
+            "classes that are annotated with @Configuration and are not annotated with @Public should have name matching '.*Configuration'",
+            h -> h.isAnnotatedWith(CONFIGURATION) && !h.isAnnotatedWith(PUBLIC),
+            h -> h.name().endsWith("Configuration")
+                    ? List.of()
+                    : List.of("Class <%s> does not have name matching '.*Configuration' in %s".formatted(h.name(), h.location())));
+
+    /**
+     * Same as {@literal PresentationRules.notUseDTONaming}.
+     */
+    public static final HeaderRule notUseDTONaming = HeaderRule.of(
+            "no classes that reside in any package ['..api..'] should have simple name ending with 'DTO'",
+            h -> ("." + h.packageName() + ".").contains(".api."),
+            h -> h.simpleName().endsWith("DTO")
+                    ? List.of("Class <%s> has simple name ending with 'DTO' in %s".formatted(h.name(), h.location()))
+                    : List.of());
+
+    /**
+     * Same as {@literal GlobalRules.verify_logger_definition}.
+     */
+    public static final HeaderRule verify_logger_definition = HeaderRule.of(
+            "fields that have raw type org.slf4j.Logger should be private and should be static and should be final, because This a defined logger definition",
+            h -> true,
+            h -> {
+                var violations = new ArrayList<String>(0);
+                for (var field : h.fields()) {
+                    if (!LOGGER.equals(field.typeName())) {
+                        continue;
+                    }
+                    if (!field.isPrivate()) {
+                        violations.add(fieldViolation(h, field, "PRIVATE"));
+                    }
+                    if (!field.isStatic()) {
+                        violations.add(fieldViolation(h, field, "STATIC"));
+                    }
+                    if (!field.isFinal()) {
+                        violations.add(fieldViolation(h, field, "FINAL"));
+                    }
+                }
+                return violations;
+            });
+
+    private static String fieldViolation(ClassHeader header, ClassHeader.Field field, String modifier) {
+        return "Field <%s.%s> does not have modifier %s in %s".formatted(header.name(), field.name(), modifier, header.location());
+    }
+
+    /**
+     * Returns all header rules.
+     *
+     * @return The rules in the order of {@link #REPLACED}
+     */
+    public static List<HeaderRule> all() {
+        return List.of(entitiesMustHaveTableAnnotation, configurationsShouldBeNamedConfiguration, notUseDTONaming,
+                verify_logger_definition);
+    }
+
+    /**
+     * Evaluates all header rules.
+     *
+     * @param headers The headers of the classes to evaluate
+     * @return The failure messages of the violated rules, keyed by the name of the replaced ArchUnit rule in the order of
+     * {@link #REPLACED}
+     */
+    public static Map<String, String> failures(Collection<ClassHeader> headers) {
+        var result = new LinkedHashMap<String, String>();
+        var rules = all();
+        for (var i = 0; i < rules.size(); i++) {
+            var rule = rules.get(i);
+            var message = rule.failureMessage(rule.evaluate(headers));
+            if (!message.isEmpty()) {
+                result.put(REPLACED.get(i), message);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates all header rules and fails if at least one rule is violated.
+     *
+     * @param headers The headers of the classes to evaluate
+     * @throws AssertionError Listing the failure messages of all violated rules
+     */
+    public static void check(Collection<ClassHeader> headers) {
+        var failures = failures(headers);
+        if (!failures.isEmpty()) {
+            var sb = new StringBuilder("%d of %d header rules failed".formatted(failures.size(), REPLACED.size()));
+            failures.forEach((name, message) -> sb.append(System.lineSeparator()).append(System.lineSeparator())
+                    .append('[').append(name).append("] ").append(message));
+            throw new AssertionError(sb.toString());
+        }
+    }
+
+    /**
+     * Evaluates all rules of this library, to be called from a single JUnit test of a component. The header rules are
+     * evaluated first on the {@link ClassHeaders#ofScope()} and fail without the ArchUnit import, all other rules of
+     * {@link ArchRuleSuite#ofLibrary()} are evaluated afterwards with the {@link ImportSession}.
+     *
+     * @throws AssertionError Listing the failure messages of all failed rules
+     */
+    public static void checkLibrary() {
+        check(ClassHeaders.ofScope());
+        ArchRuleSuite.ofLibrary().excluding(REPLACED).check(ImportSession.classes());
+    }
+}
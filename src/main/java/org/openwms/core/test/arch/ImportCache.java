@@ -0,0 +1,99 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * A ImportCache keeps one value computed from an import, like an index of the {@link com.tngtech.archunit.core.domain.JavaClasses},
+ * or from a class of an import, as long as the import or the class is referenced.
+ *
+ * The lock of the cache is only held to look up the entry of an import, so rules evaluated in parallel do not wait for each
+ * other. Each value is computed once, concurrent callers for the same import wait for that computation.
+ *
+ * @param <K> The type of the import
+ * @param <V> The type of the value
+ * @author Heiko Scherrer
+ */
+final class ImportCache<K, V> {
+
+    /** All caches, only locked on creation of a cache and by {@link #clearAll()}. */
+    private static final Set<ImportCache<?, ?>> CACHES = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Map<K, Entry<V>> entries = new WeakHashMap<>();
+    private final Function<K, V> loader;
+
+    /**
+     * Creates a cache.
+     *
+     * @param loader Computes the value of an import, must not keep a reference to the import
+     */
+    ImportCache(Function<K, V> loader) {
+        this.loader = loader;
+        synchronized (CACHES) {
+            CACHES.add(this);
+        }
+    }
+
+    /**
+     * Drops the values of all caches, so that they are computed anew also for an import that is still referenced.
+     */
+    static void clearAll() {
+        synchronized (CACHES) {
+            for (var cache : CACHES) {
+                synchronized (cache.entries) {
+                    cache.entries.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the value of the given import, computed on first access.
+     *
+     * @param key The import
+     * @return The value
+     */
+    V get(K key) {
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(key, k -> new Entry<>());
+        }
+        return entry.get(key, loader);
+    }
+
+    private static final class Entry<V> {
+
+        private volatile V value;
+
+        <K> V get(K key, Function<K, V> loader) {
+            var result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = loader.apply(key);
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A ImportFilterMetrics counts the locations the import options of this library include and exclude, and the time spent to
+ * decide on that.
+ *
+ * One summary line is logged when the JVM shuts down, at the level configured with the {@value #LEVEL_KEY} setting, that
+ * defaults to {@literal DEBUG}. The level is read when the first location is recorded, an unknown level falls back to
+ * {@literal DEBUG}.
+ *
+ * @author Heiko Scherrer
+ */
+public final class ImportFilterMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportFilterMetrics.class);
+    /** The setting with the SLF4J level of the summary line. */
+    public static final String LEVEL_KEY = "import.metrics.level";
+    private static final ImportFilterMetrics INSTANCE = new ImportFilterMetrics();
+
+    private final LongAdder included = new LongAdder();
+    private final LongAdder excluded = new LongAdder();
+    private final LongAdder filterNanos = new LongAdder();
+    private final AtomicBoolean summaryRegistered = new AtomicBoolean();
+
+    private ImportFilterMetrics() {}
+
+    /**
+     * Returns the JVM wide metrics.
+     *
+     * @return The instance
+     */
+    public static ImportFilterMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records the decision about one location.
+     *
+     * @param wasIncluded Whether the location has been included
+     * @param nanos The time spent to decide
+     */
+    void record(boolean wasIncluded, long nanos) {
+        if (summaryRegistered.compareAndSet(false, true)) {
+            var level = level();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> logSummary(level), "openwms-arch-import-metrics"));
+        }
+        (wasIncluded ? included : excluded).increment();
+        filterNanos.add(nanos);
+    }
+
+    /**
+     * Returns the number of included locations.
+     *
+     * @return The count
+     */
+    public long getIncluded() {
+        return included.sum();
+    }
+
+    /**
+     * Returns the number of excluded locations.
+     *
+     * @return The count
+     */
+    public long getExcluded() {
+        return excluded.sum();
+    }
+
+    /**
+     * Returns the total time spent in filtering.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getFilterNanos() {
+        return filterNanos.sum();
+    }
+
+    /**
+     * Logs one line with the current counts at the configured level.
+     */
+    public void logSummary() {
+        logSummary(level());
+    }
+
+    private void logSummary(Level level) {
+        LOGGER.atLevel(level).log("Import filter included [{}] and excluded [{}] locations in [{}] ms",
+                getIncluded(), getExcluded(), getFilterNanos() / 1_000_000);
+    }
+
+    private static Level level() {
+        var value = ArchSettings.get(LEVEL_KEY, Level.DEBUG.name());
+        try {
+            return Level.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Setting [{}{}] is not a log level: [{}], using DEBUG", ArchSettings.PREFIX, LEVEL_KEY, value);
+            return Level.DEBUG;
+        }
+    }
+}
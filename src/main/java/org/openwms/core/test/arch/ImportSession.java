@@ -0,0 +1,94 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.ImportOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A ImportSession holds the {@link JavaClasses} of the {@link ScanScope} imported once per JVM.
+ *
+ * The rule classes of this library are executed by the ArchUnit JUnit engine that shares one import between all of them,
+ * because they are all declared with the same locations, import options and {@link com.tngtech.archunit.junit.CacheMode#FOREVER}.
+ * The ImportSession offers the same single import to code that evaluates the rules programmatically.
+ *
+ * @author Heiko Scherrer
+ */
+public final class ImportSession {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportSession.class);
+    private static final AtomicInteger IMPORT_COUNT = new AtomicInteger();
+    private static volatile JavaClasses classes;
+
+    private ImportSession() {}
+
+    /**
+     * Returns the classes of the {@link ScanScope}, imported on the first call and reused afterwards.
+     *
+     * @return The shared imported classes
+     */
+    public static JavaClasses classes() {
+        var result = classes;
+        if (result == null) {
+            synchronized (ImportSession.class) {
+                result = classes;
+                if (result == null) {
+                    result = doImport();
+                    classes = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns how often the classes have been imported in this JVM, that is expected to be at most one.
+     *
+     * @return The number of imports
+     */
+    public static int importCount() {
+        return IMPORT_COUNT.get();
+    }
+
+    /**
+     * Drops the shared import and all caches of the rules, so that the next call to {@link #classes()} imports the classes
+     * again and the rules compute their caches anew, also for imports that are still referenced.
+     */
+    public static synchronized void reset() {
+        classes = null;
+        ClassHeaders.clear();
+        ImportCache.clearAll();
+    }
+
+    private static JavaClasses doImport() {
+        var start = System.nanoTime();
+        var result = ResolutionProfile.withConfigured(() -> new ClassFileImporter()
+                .withImportOption(new ImportOption.DoNotIncludeTests())
+                .withImportOption(new ImportOption.DoNotIncludeJars())
+                .withImportOption(new ArchConstants.RecordFingerprints())
+                .withImportOption(new ScanScope.Filter())
+                .importLocations(ScanScope.locations()));
+        var count = IMPORT_COUNT.incrementAndGet();
+        LOGGER.debug("Imported [{}] classes of packages {} in [{}] ms, import number [{}]", result.size(),
+                ScanScope.packages(), (System.nanoTime() - start) / 1_000_000, count);
+        return result;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.PackageMatcher;
+import com.tngtech.archunit.core.domain.Source;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A IncrementalScope narrows the classes a rule evaluates to the ones that have changed since a baseline, plus their direct
+ * dependents.
+ *
+ * The mode is enabled with the {@value #BASELINE_KEY} setting. The baseline is either a git ref, like {@literal origin/master},
+ * and the changed classes are derived from the changed source files, or the value {@value #MANIFEST_BASELINE} that compares
+ * the imported class files against the fingerprint manifest written by a former run (see {@link LocationFingerprints}).
+ * Without the setting all classes are evaluated, so a full CI build is not affected.
+ *
+ * @author Heiko Scherrer
+ */
+public final class IncrementalScope {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalScope.class);
+    /** The setting with the baseline to compare against. */
+    public static final String BASELINE_KEY = "incremental.baseline";
+    /** The setting with the working directory of git, defaults to the current directory. */
+    public static final String GIT_DIR_KEY = "incremental.gitDir";
+    /** The baseline value to compare against the stored fingerprint manifest. */
+    public static final String MANIFEST_BASELINE = "manifest";
+    private static final String[] SOURCE_ROOTS = {"src/main/java/", "src/main/kotlin/"};
+    private static volatile IncrementalScope instance;
+
+    private final String baseline;
+    private final Set<String> changedTypes;
+    private final LocationFingerprints manifest;
+    private final Map<String, Boolean> changedCache = new ConcurrentHashMap<>();
+
+    private IncrementalScope(String baseline, Set<String> changedTypes, LocationFingerprints manifest) {
+        this.baseline = baseline;
+        this.changedTypes = changedTypes;
+        this.manifest = manifest;
+    }
+
+    /**
+     * Checks whether the incremental mode is enabled.
+     *
+     * @return {@literal true} if a baseline is configured
+     */
+    public static boolean isEnabled() {
+        return !ArchSettings.get(BASELINE_KEY, "").isEmpty();
+    }
+
+    /**
+     * Returns the scope of the configured baseline, computed once per JVM.
+     *
+     * @return The scope
+     * @throws IllegalStateException If the incremental mode is not enabled
+     */
+    public static IncrementalScope get() {
+        var result = instance;
+        if (result == null) {
+            synchronized (IncrementalScope.class) {
+                result = instance;
+                if (result == null) {
+                    result = create(ArchSettings.get(BASELINE_KEY, ""));
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static IncrementalScope create(String baseline) {
+        if (baseline.isEmpty()) {
+            throw new IllegalStateException("Incremental mode is not enabled, set " + ArchSettings.PREFIX + BASELINE_KEY);
+        }
+        if (MANIFEST_BASELINE.equals(baseline)) {
+            var file = LocationFingerprints.configuredFile();
+            LOGGER.info("Evaluating classes changed since fingerprint manifest [{}]", file);
+            return new IncrementalScope(baseline, Set.of(), LocationFingerprints.load(file));
+        }
+        var changedTypes = changedTypesSince(baseline);
+        LOGGER.info("Evaluating [{}] types changed since git ref [{}] and their direct dependents", changedTypes.size(), baseline);
+        return new IncrementalScope(baseline, changedTypes, null);
+    }
+
+    private static Set<String> changedTypesSince(String ref) {
+        var dir = new File(ArchSettings.get(GIT_DIR_KEY, "."));
+        var files = new ArrayList<String>();
+        files.addAll(git(dir, "git", "diff", "--name-only", ref, "--"));
+        files.addAll(git(dir, "git", "ls-files", "--others", "--exclude-standard"));
+        var result = new HashSet<String>();
+        for (var file : files) {
+            var typeName = toTypeName(file);
+            if (typeName != null) {
+                result.add(typeName);
+            }
+        }
+        return result;
+    }
+
+    private static String toTypeName(String sourceFile) {
+        var extension = sourceFile.lastIndexOf('.');
+        if (extension < 0) {
+            return null;
+        }
+        for (var root : SOURCE_ROOTS) {
+            var index = sourceFile.indexOf(root);
+            if (index >= 0) {
+                return sourceFile.substring(index + root.length(), extension).replace('/', '.');
+            }
+        }
+        return null;
+    }
+
+    private static List<String> git(File dir, String... command) {
+        try {
+            var process = new ProcessBuilder(command).directory(dir).redirectErrorStream(true).start();
+            var lines = new ArrayList<String>();
+            try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line.trim());
+                }
+            }
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("Command %s failed in [%s]: %s".formatted(List.of(command), dir, lines));
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot execute " + List.of(command), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing " + List.of(command), e);
+        }
+    }
+
+    /**
+     * Returns the configured baseline.
+     *
+     * @return A git ref or {@value #MANIFEST_BASELINE}
+     */
+    public String getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * Checks whether the given class has changed since the baseline.
+     *
+     * @param javaClass The class to check
+     * @return {@literal true} if changed
+     */
+    public boolean isChanged(JavaClass javaClass) {
+        return changedCache.computeIfAbsent(javaClass.getName(),
+                n -> computeChanged(n, javaClass.getSource().map(Source::getUri).orElse(null)));
+    }
+
+    /**
+     * Checks whether the class of the given name has changed since the baseline, for rules that do not evaluate imported
+     * classes, like the {@link HeaderRules}.
+     *
+     * @param className The fully qualified name of the class
+     * @param classFile The URI of the class file, {@literal null} if unknown
+     * @return {@literal true} if changed
+     */
+    public boolean isChanged(String className, URI classFile) {
+        return changedCache.computeIfAbsent(className, n -> computeChanged(n, classFile));
+    }
+
+    private boolean computeChanged(String name, URI classFile) {
+        if (manifest != null) {
+            return classFile != null && manifest.hasChanged(classFile);
+        }
+        var nested = name.indexOf('$');
+        return changedTypes.contains(nested < 0 ? name : name.substring(0, nested));
+    }
+
+    /**
+     * Checks whether the given class has changed or directly depends on a changed class.
+     *
+     * @param javaClass The class to check
+     * @return {@literal true} if affected by the change
+     */
+    public boolean isAffected(JavaClass javaClass) {
+        if (isChanged(javaClass)) {
+            return true;
+        }
+        for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+            if (isChanged(dependency.getTargetClass())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Narrows the given classes to the ones affected by the change.
+     *
+     * @param classes All classes
+     * @return The affected classes
+     */
+    public JavaClasses affectedClasses(JavaClasses classes) {
+        return classes.that(DescribedPredicate.describe("are affected by changes since " + baseline, this::isAffected));
+    }
+
+    /**
+     * Narrows the given classes to all classes of the slices that contain at least one affected class and of all slices
+     * reachable from these along the dependencies between slices. Every cycle through an affected slice consists of
+     * reachable slices only, so rules on the dependency graph between slices, like cycle checks, still find all cycles a
+     * change may have closed, also through unchanged slices.
+     *
+     * @param classes All classes
+     * @param packageIdentifier The package identifier that defines the slices, like {@literal org.openwms.(*)..}
+     * @return The classes of the affected and the reachable slices
+     */
+    public JavaClasses affectedSlices(JavaClasses classes, String packageIdentifier) {
+        var matcher = PackageMatcher.of(packageIdentifier);
+        var successors = new HashMap<String, Set<String>>();
+        var pending = new ArrayDeque<String>();
+        var slices = new HashSet<String>();
+        for (var javaClass : classes) {
+            var slice = sliceOf(matcher, javaClass);
+            if (slice == null) {
+                continue;
+            }
+            for (var dependency : javaClass.getDirectDependenciesFromSelf()) {
+                var target = sliceOf(matcher, dependency.getTargetClass());
+                if (target != null && !target.equals(slice)) {
+                    successors.computeIfAbsent(slice, k -> new HashSet<>()).add(target);
+                }
+            }
+            if (isAffected(javaClass) && slices.add(slice)) {
+                pending.add(slice);
+            }
+        }
+        while (!pending.isEmpty()) {
+            for (var successor : successors.getOrDefault(pending.poll(), Set.of())) {
+                if (slices.add(successor)) {
+                    pending.add(successor);
+                }
+            }
+        }
+        return classes.that(DescribedPredicate.describe("reside in slices affected by changes since " + baseline + " or reachable from these",
+                c -> slices.contains(sliceOf(matcher, c))));
+    }
+
+    private static String sliceOf(PackageMatcher matcher, JavaClass javaClass) {
+        return matcher.match(javaClass.getPackageName()).map(r -> {
+            var sb = new StringBuilder();
+            for (int i = 1; i <= r.getNumberOfGroups(); i++) {
+                sb.append(r.getGroup(i)).append('/');
+            }
+            return sb.toString();
+        }).orElse(null);
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.PackageMatcher;
+import com.tngtech.archunit.lang.AbstractClassesTransformer;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ClassesTransformer;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A LayerIndex collapses the dependencies between classes into a matrix of dependencies between layers.
+ *
+ * Each class is assigned to a node once, by the package of the class: the first layer of the {@link Definition} with a
+ * matching package identifier. If the package identifier captures a group, like {@literal ..adapter.(*)..}, each captured
+ * value is a node of its own, so the slices of a layer can be checked too. Classes outside of all layers are origin only,
+ * in the node {@link #UNASSIGNED}. For each pair of nodes the index keeps the number of dependencies and the first
+ * {@value #DEFAULT_MAX_EXAMPLES} of them as examples, configurable with {@value #MAX_EXAMPLES_KEY}.
+ *
+ * Rules are defined on the {@link Edge}s of the index with {@link Definition#edges()} and are checked in one pass over the
+ * matrix, e.g.:
+ * <pre>
+ * all(LAYERS.edges()).should(LayerIndex.mayNotBeAccessedByAnyLayer("adapter"))
+ * </pre>
+ * The index of a {@link JavaClasses} is built once per definition and shared by all rules on that definition.
+ *
+ * @author Heiko Scherrer
+ */
+public final class LayerIndex {
+
+    /** The setting with the maximum number of example dependencies kept per edge. */
+    public static final String MAX_EXAMPLES_KEY = "layers.maxExamples";
+    /** The default maximum number of example dependencies kept per edge. */
+    public static final int DEFAULT_MAX_EXAMPLES = 20;
+    /** The node of all classes that do not belong to any layer. */
+    public static final Node UNASSIGNED = new Node("", null);
+
+    private final List<Node> nodes;
+    private final int[][] counts;
+    private final List<Edge> edges;
+
+    private LayerIndex(List<Node> nodes, int[][] counts, List<Edge> edges) {
+        this.nodes = nodes;
+        this.counts = counts;
+        this.edges = edges;
+    }
+
+    /**
+     * A node of the index, a layer or a slice of a layer.
+     *
+     * @param layer The name of the layer
+     * @param slice The captured group of the package identifier of the layer or {@literal null}
+     */
+    public record Node(String layer, String slice) {
+
+        /**
+         * Checks whether the node is part of one of the given layers.
+         *
+         * @param layers The names of the layers
+         * @return {@literal true} if so
+         */
+        public boolean isIn(String... layers) {
+            for (var name : layers) {
+                if (layer.equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            if (this.equals(UNASSIGNED)) {
+                return "classes outside of any layer";
+            }
+            return slice == null ? "layer '%s'".formatted(layer) : "slice '%s' of layer '%s'".formatted(slice, layer);
+        }
+    }
+
+    /**
+     * The dependencies from one node to another one.
+     *
+     * @param from The origin node
+     * @param to The target node
+     * @param count The number of dependencies
+     * @param examples The first dependencies, sorted by their origin class
+     */
+    public record Edge(Node from, Node to, int count, List<Dependency> examples) {
+
+        @Override
+        public String toString() {
+            return "%s -> %s (%d)".formatted(from, to, count);
+        }
+    }
+
+    /**
+     * Starts a definition of layers.
+     *
+     * @return An empty definition
+     */
+    public static Definition define() {
+        return new Definition(new LinkedHashMap<>());
+    }
+
+    /**
+     * Returns all nodes with at least one dependency from or to another node.
+     *
+     * @return The nodes, indexed by their position in the matrix
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of dependencies between two nodes.
+     *
+     * @param from The origin node
+     * @param to The target node
+     * @return The number of dependencies, {@literal 0} if the nodes do not depend on each other or are unknown
+     */
+    public int count(Node from, Node to) {
+        var i = nodes.indexOf(from);
+        var j = nodes.indexOf(to);
+        return i < 0 || j < 0 ? 0 : counts[i][j];
+    }
+
+    /**
+     * Returns all edges of the matrix with at least one dependency.
+     *
+     * @return The edges, sorted by origin and target node
+     */
+    public List<Edge> getEdges() {
+        return edges;
+    }
+
+    /**
+     * A definition of layers, each defined by package identifiers.
+     */
+    public static final class Definition {
+
+        private final Map<String, List<PackageMatcher>> layers;
+        private final Map<String, Node> nodesByPackage = new ConcurrentHashMap<>();
+        private final ImportCache<JavaClasses, LayerIndex> indexes = new ImportCache<>(this::build);
+
+        private Definition(Map<String, List<PackageMatcher>> layers) {
+            this.layers = layers;
+        }
+
+        /**
+         * Adds a layer. Layers are matched in the order they are added.
+         *
+         * @param name The name of the layer
+         * @param packageIdentifiers The packages of the layer, like {@literal ..domain..} or {@literal ..adapter.(*)..}
+         * @return A new definition with the layer added
+         */
+        public Definition layer(String name, String... packageIdentifiers) {
+            var copy = new LinkedHashMap<>(layers);
+            copy.put(name, Arrays.stream(packageIdentifiers).map(PackageMatcher::of).toList());
+            return new Definition(copy);
+        }
+
+        /**
+         * Returns the index of the given classes, built on first access.
+         *
+         * @param classes The classes
+         * @return The index
+         */
+        public LayerIndex indexOf(JavaClasses classes) {
+            return indexes.get(classes);
+        }
+
+        /**
+         * Transforms the classes into the edges of their index, to define rules on with
+         * {@link com.tngtech.archunit.lang.syntax.ArchRuleDefinition#all(ClassesTransformer)}.
+         *
+         * @return The transformer
+         */
+        public ClassesTransformer<Edge> edges() {
+            return new AbstractClassesTransformer<>("dependencies between layers " + layers.keySet()) {
+                @Override
+                public Iterable<Edge> doTransform(JavaClasses collection) {
+                    return indexOf(collection).getEdges();
+                }
+            };
+        }
+
+        Node nodeOf(JavaClass javaClass) {
+            var type = javaClass.isArray() ? javaClass.getBaseComponentType() : javaClass;
+            return nodesByPackage.computeIfAbsent(type.getPackageName(), this::match);
+        }
+
+        private Node match(String packageName) {
+            for (var layer : layers.entrySet()) {
+                for (var matcher : layer.getValue()) {
+                    var result = matcher.match(packageName);
+                    if (result.isPresent()) {
+                        var match = result.get();
+                        return new Node(layer.getKey(), match.getNumberOfGroups() > 0 ? match.getGroup(1) : null);
+                    }
+                }
+            }
+            return UNASSIGNED;
+        }
+
+        private LayerIndex build(JavaClasses classes) {
+            var maxExamples = ArchSettings.getInt(MAX_EXAMPLES_KEY, DEFAULT_MAX_EXAMPLES);
+            var ids = new HashMap<Node, Integer>();
+            var nodes = new ArrayList<Node>();
+            var edgeCounts = new HashMap<Long, int[]>();
+            var edgeExamples = new HashMap<Long, List<Dependency>>();
+            for (var javaClass : classes) {
+                var from = nodeOf(javaClass);
+                for (var dependency : javaClass.getDirectDependenciesFromSelf()) {
+                    var to = nodeOf(dependency.getTargetClass());
+                    if (to.equals(UNASSIGNED) || to.equals(from)) {
+                        continue;
+                    }
+                    var key = (long) idOf(from, ids, nodes) << 32 | idOf(to, ids, nodes);
+                    edgeCounts.computeIfAbsent(key, k -> new int[1])[0]++;
+                    var examples = edgeExamples.computeIfAbsent(key, k -> new ArrayList<>());
+                    if (examples.size() < maxExamples) {
+                        examples.add(dependency);
+                    }
+                }
+            }
+            var counts = new int[nodes.size()][nodes.size()];
+            var edges = new ArrayList<Edge>(edgeCounts.size());
+            for (var entry : edgeCounts.entrySet()) {
+                var from = (int) (entry.getKey() >>> 32);
+                var to = (int) (long) entry.getKey();
+                counts[from][to] = entry.getValue()[0];
+                var examples = edgeExamples.get(entry.getKey());
+                examples.sort((a, b) -> a.getDescription().compareTo(b.getDescription()));
+                edges.add(new Edge(nodes.get(from), nodes.get(to), counts[from][to], List.copyOf(examples)));
+            }
+            edges.sort((a, b) -> a.toString().compareTo(b.toString()));
+            return new LayerIndex(List.copyOf(nodes), counts, List.copyOf(edges));
+        }
+
+        private static int idOf(Node node, Map<Node, Integer> ids, List<Node> nodes) {
+            return ids.computeIfAbsent(node, n -> {
+                nodes.add(n);
+                return nodes.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Creates a condition that no class outside the given layer depends on it, also none that is in no layer at all, like
+     * {@literal layeredArchitecture().consideringAllDependencies()} does.
+     *
+     * @param layer The name of the layer
+     * @return The condition
+     */
+    public static ArchCondition<Edge> mayNotBeAccessedByAnyLayer(String layer) {
+        return new EdgeCondition("not be an access of layer '%s' by any other layer".formatted(layer)) {
+            @Override
+            boolean isViolation(Edge edge) {
+                return edge.to().isIn(layer) && !edge.from().isIn(layer);
+            }
+        };
+    }
+
+    /**
+     * Creates a condition that only the given layers, and the layer itself, depend on the given layer.
+     *
+     * @param layer The name of the layer
+     * @param accessors The names of the layers that may depend on the layer
+     * @return The condition
+     */
+    public static ArchCondition<Edge> mayOnlyBeAccessedByLayers(String layer, String... accessors) {
+        var allowed = Set.of(accessors);
+        return new EdgeCondition("not be an access of layer '%s' by other classes than of layers %s".formatted(layer, allowed)) {
+            @Override
+            boolean isViolation(Edge edge) {
+                return edge.to().isIn(layer) && !edge.from().isIn(layer) && !allowed.contains(edge.from().layer());
+            }
+        };
+    }
+
+    /**
+     * Creates a condition that the slices of the given layer do not depend on each other.
+     *
+     * @param layer The name of the layer, defined by a package identifier with a capturing group
+     * @return The condition
+     */
+    public static ArchCondition<Edge> slicesNotDependOnEachOther(String layer) {
+        return new EdgeCondition("not be a dependency between slices of layer '%s'".formatted(layer)) {
+            @Override
+            boolean isViolation(Edge edge) {
+                return edge.from().isIn(layer) && edge.to().isIn(layer) && edge.from().slice() != null && edge.to().slice() != null;
+            }
+        };
+    }
+
+    private abstract static class EdgeCondition extends ArchCondition<Edge> {
+
+        EdgeCondition(String description) {
+            super(description);
+        }
+
+        abstract boolean isViolation(Edge edge);
+
+        @Override
+        public void check(Edge edge, ConditionEvents events) {
+            if (!isViolation(edge)) {
+                return;
+            }
+            for (var dependency : edge.examples()) {
+                events.add(SimpleConditionEvent.violated(dependency, "%s depends on %s: %s".formatted(edge.from(), edge.to(),
+                        dependency.getDescription())));
+            }
+            if (edge.count() > edge.examples().size()) {
+                events.add(SimpleConditionEvent.violated(edge, "%s depends on %s in further places that are not listed (%s%s=%d)"
+                        .formatted(edge.from(), edge.to(), ArchSettings.PREFIX, MAX_EXAMPLES_KEY, edge.examples().size())));
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A LocationFingerprints is a persistent manifest of the class files an import has seen, each one fingerprinted by its size
+ * and last modification time.
+ *
+ * The manifest is stored as a compact binary file under {@literal target/} and is written when the
+ * {@value #RECORD_KEY} setting is enabled. A later run loads it to find the class files that have changed in between.
+ *
+ * @author Heiko Scherrer
+ */
+public final class LocationFingerprints {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocationFingerprints.class);
+    /** The setting to enable recording of fingerprints. */
+    public static final String RECORD_KEY = "fingerprints.record";
+    /** The setting with the path to the manifest file. */
+    public static final String FILE_KEY = "fingerprints.file";
+    /** The default path to the manifest file. */
+    public static final String DEFAULT_FILE = "target/archunit-openwms/fingerprints.bin";
+    private static final int MAGIC = 0x4F574653;
+    private static final int VERSION = 1;
+    private static volatile LocationFingerprints recorder;
+
+    private final Path file;
+    private final Map<String, Fingerprint> fingerprints;
+
+    private LocationFingerprints(Path file, Map<String, Fingerprint> fingerprints) {
+        this.file = file;
+        this.fingerprints = fingerprints;
+    }
+
+    /**
+     * The fingerprint of one location.
+     *
+     * @param size The size in bytes
+     * @param lastModified The last modification time in milliseconds
+     */
+    public record Fingerprint(long size, long lastModified) {}
+
+    /**
+     * Returns the configured path to the manifest file.
+     *
+     * @return The path
+     */
+    public static Path configuredFile() {
+        return Path.of(ArchSettings.get(FILE_KEY, DEFAULT_FILE));
+    }
+
+    /**
+     * Checks whether recording of fingerprints is enabled.
+     *
+     * @return {@literal true} if enabled
+     */
+    public static boolean isRecordingEnabled() {
+        return ArchSettings.getBoolean(RECORD_KEY, false);
+    }
+
+    /**
+     * Returns the JVM wide instance that records the fingerprints of imported locations and saves them to the
+     * {@link #configuredFile()} when the JVM shuts down.
+     *
+     * @return The recording instance
+     */
+    public static LocationFingerprints recorder() {
+        var result = recorder;
+        if (result == null) {
+            synchronized (LocationFingerprints.class) {
+                result = recorder;
+                if (result == null) {
+                    result = new LocationFingerprints(configuredFile(), new ConcurrentHashMap<>());
+                    var toSave = result;
+                    Runtime.getRuntime().addShutdownHook(new Thread(toSave::saveQuietly, "openwms-arch-fingerprints"));
+                    recorder = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Loads a previously saved manifest.
+     *
+     * @param file The manifest file
+     * @return The manifest, empty if the file does not exist
+     * @throws UncheckedIOException If the file cannot be read
+     */
+    public static LocationFingerprints load(Path file) {
+        var result = new ConcurrentHashMap<String, Fingerprint>();
+        try (var in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOGGER.warn("Ignoring fingerprint manifest [{}] with an unknown format", file);
+                return new LocationFingerprints(file, result);
+            }
+            var count = in.readInt();
+            var previous = "";
+            for (int i = 0; i < count; i++) {
+                // keys are sorted and stored with the length of the prefix shared with the previous key
+                var shared = in.readUnsignedShort();
+                var key = previous.substring(0, shared) + in.readUTF();
+                result.put(key, new Fingerprint(in.readLong(), in.readLong()));
+                previous = key;
+            }
+        } catch (NoSuchFileException e) {
+            LOGGER.debug("No fingerprint manifest found at [{}]", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read fingerprint manifest " + file, e);
+        }
+        return new LocationFingerprints(file, result);
+    }
+
+    /**
+     * Fingerprints the given location as it is on the file system right now.
+     *
+     * @param uri The URI of a class file, either a file or an entry of a JAR file that is fingerprinted as a whole
+     * @return The fingerprint, empty if the location is not on the local file system
+     */
+    public static Optional<Fingerprint> fingerprintOf(URI uri) {
+        var path = toPath(uri);
+        if (path == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new Fingerprint(Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Path toPath(URI uri) {
+        if ("file".equals(uri.getScheme())) {
+            return Path.of(uri);
+        }
+        if ("jar".equals(uri.getScheme())) {
+            var spec = uri.getRawSchemeSpecificPart();
+            var separator = spec.indexOf("!/");
+            var jar = URI.create(separator < 0 ? spec : spec.substring(0, separator));
+            return "file".equals(jar.getScheme()) ? Path.of(jar) : null;
+        }
+        return null;
+    }
+
+    /**
+     * Records the current fingerprint of the given location.
+     *
+     * @param uri The URI of the location
+     */
+    public void record(URI uri) {
+        fingerprintOf(uri).ifPresent(f -> fingerprints.put(uri.toString(), f));
+    }
+
+    /**
+     * Checks whether the given location differs from the fingerprint in this manifest or is not part of it.
+     *
+     * @param uri The URI of the location
+     * @return {@literal true} if the location has changed
+     */
+    public boolean hasChanged(URI uri) {
+        var stored = fingerprints.get(uri.toString());
+        return stored == null || !fingerprintOf(uri).map(stored::equals).orElse(false);
+    }
+
+    /**
+     * Returns all recorded locations with their fingerprints.
+     *
+     * @return An unmodifiable view, keyed by the location URI
+     */
+    public Map<String, Fingerprint> getFingerprints() {
+        return Collections.unmodifiableMap(fingerprints);
+    }
+
+    /**
+     * Writes the manifest to its file.
+     *
+     * @throws UncheckedIOException If the file cannot be written
+     */
+    public void save() {
+        var sorted = new TreeMap<>(fingerprints);
+        try {
+            var dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            var tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(sorted.size());
+                var previous = "";
+                for (var entry : sorted.entrySet()) {
+                    var key = entry.getKey();
+                    var shared = sharedPrefix(previous, key);
+                    out.writeShort(shared);
+                    out.writeUTF(key.substring(shared));
+                    out.writeLong(entry.getValue().size());
+                    out.writeLong(entry.getValue().lastModified());
+                    previous = key;
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write fingerprint manifest " + file, e);
+        }
+        LOGGER.debug("Saved [{}] fingerprints to [{}]", sorted.size(), file);
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (UncheckedIOException e) {
+            LOGGER.warn(e.getMessage(), e);
+        }
+    }
+
+    private static int sharedPrefix(String a, String b) {
+        var max = Math.min(Math.min(a.length(), b.length()), 0xFFFF);
+        var i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+}
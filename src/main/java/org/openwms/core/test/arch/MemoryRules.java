@@ -0,0 +1,278 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaField;
+import com.tngtech.archunit.core.domain.JavaFieldAccess;
+import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.domain.JavaParameterizedType;
+import com.tngtech.archunit.core.domain.JavaStaticInitializer;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.CacheMode;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.MappedSuperclass;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.regex.Pattern;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.openwms.core.test.arch.SpringPredicates.areSpringBeans;
+
+/**
+ * A MemoryRules class defines rules that detect heap leaks and a needlessly large heap footprint in long-running services.
+ *
+ * @author Heiko Scherrer
+ */
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
+        ImportOption.DoNotIncludeTests.class,
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
+})
+public final class MemoryRules {
+
+    private static final Set<String> GROWING_METHODS = Set.of("put", "putAll", "putIfAbsent", "computeIfAbsent", "compute", "merge",
+            "add", "addAll", "addFirst", "addLast", "offer", "push");
+    private static final Set<String> BOXED_TYPES = Set.of(Integer.class.getName(), Long.class.getName(), Short.class.getName(),
+            Byte.class.getName(), Double.class.getName(), Float.class.getName(), Character.class.getName(), Boolean.class.getName());
+    private static final Pattern REGISTRATION = Pattern.compile("(add|register).*(Listener|Observer|Handler|Callback)|addObserver|subscribe");
+    private static final Pattern DEREGISTRATION = Pattern.compile("(remove|unregister).*(Listener|Observer|Handler|Callback)|deleteObserver|unsubscribe|dispose");
+
+    private MemoryRules() {}
+
+    /**
+     * Ensures that static Map or Collection fields of Spring Beans that are filled at runtime are bounded or evict entries.
+     *
+     * A static collection lives as long as the class loader, everything put into it while serving requests is never
+     * collected. Bounded or evicting are a {@link WeakHashMap}, an {@link EnumMap}, an {@link ArrayBlockingQueue} and a
+     * {@link java.util.LinkedHashMap} overriding {@literal removeEldestEntry}, declared as field type or assigned to the field
+     * in the static initializer. A field is considered filled at runtime if a method other than the static initializer adds
+     * elements to its value. Use a cache with a maximum size and an expiry instead.
+     */
+    @ArchTest
+    public static final ArchRule noUnboundedStaticCollectionsInBeans = ScopedArchRule.classLocal(classes()
+            .that(areSpringBeans)
+            .should(new ArchCondition<>("not fill unbounded static collections") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var field : item.getFields()) {
+                        if (field.getModifiers().contains(JavaModifier.STATIC) && isCollection(field.getRawType())
+                                && !isBounded(field.getRawType()) && !initializesBounded(field) && isGrowing(field)) {
+                            events.add(SimpleConditionEvent.violated(field, "Static field %s grows at runtime and is never evicted, use a bounded cache %s"
+                                    .formatted(field.getFullName(), field.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that Spring Beans do not register inner classes or method references of themselves as listeners without ever
+     * deregistering them.
+     *
+     * A non-static inner class and a method reference like {@literal this::onEvent} hold a reference to the bean, the object
+     * they are registered at keeps the bean reachable. Registering again on each call leaks one listener per call. Lambdas are
+     * not visible as such in the bytecode and not reported.
+     */
+    @ArchTest
+    public static final ArchRule noListenersKeepingBeansReachable = ScopedArchRule.classLocal(classes()
+            .that(areSpringBeans)
+            .should(new ArchCondition<>("not register listeners capturing the bean without deregistering them") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    if (deregistersListeners(item)) {
+                        return;
+                    }
+                    for (var codeUnit : item.getCodeUnits()) {
+                        if (!registersListeners(item, codeUnit)) {
+                            continue;
+                        }
+                        for (var capturing : capturingListenersOf(item, codeUnit)) {
+                            events.add(SimpleConditionEvent.violated(codeUnit, "%s registers %s as listener, it keeps %s reachable and is never deregistered %s"
+                                    .formatted(codeUnit.getFullName(), capturing, item.getSimpleName(), codeUnit.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that the values of {@link ThreadLocal} fields are removed.
+     *
+     * Pooled threads live as long as the application, a value that is set and never removed stays reachable from the thread
+     * and leaks into the next task. A field is considered cleaned up if {@link ThreadLocal#remove()} is called on its value,
+     * like {@literal CONTEXT.remove()}.
+     */
+    @ArchTest
+    public static final ArchRule threadLocalsMustBeRemoved = ScopedArchRule.classLocal(classes()
+            .should(new ArchCondition<>("remove the values of ThreadLocal fields") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var field : item.getFields()) {
+                        if (field.getRawType().isAssignableTo(ThreadLocal.class) && !isRemoved(field)) {
+                            events.add(SimpleConditionEvent.violated(field, "ThreadLocal %s is never removed, call remove() in a finally block %s"
+                                    .formatted(field.getFullName(), field.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that entities and view objects do not hold collections or arrays of boxed primitives, like
+     * {@literal List<Long>}.
+     *
+     * Each element is an object with a header and a reference to it, about four times the size of the primitive value in an
+     * array like {@literal long[]}.
+     */
+    @ArchTest
+    public static final ArchRule noBoxedCollectionsInEntitiesAndViewObjects = ScopedArchRule.classLocal(classes()
+            .that()
+            .areAnnotatedWith(Entity.class).or()
+            .areAnnotatedWith(MappedSuperclass.class).or()
+            .areAnnotatedWith(Embeddable.class).or()
+            .haveSimpleNameEndingWith("VO")
+            .should(new ArchCondition<>("not hold collections of boxed primitives") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var field : item.getFields()) {
+                        var boxed = boxedElementOf(field);
+                        if (boxed != null) {
+                            events.add(SimpleConditionEvent.violated(field, "Field %s holds boxed %s elements, use a %s[] %s"
+                                    .formatted(field.getFullName(), boxed.getSimpleName(), primitiveNameOf(boxed), field.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    private static boolean isCollection(JavaClass type) {
+        return type.isAssignableTo(Map.class) || type.isAssignableTo(Collection.class);
+    }
+
+    private static boolean isBounded(JavaClass type) {
+        return type.isAssignableTo(WeakHashMap.class) || type.isAssignableTo(EnumMap.class) || type.isAssignableTo(ArrayBlockingQueue.class)
+                || type.getMethods().stream().anyMatch(m -> "removeEldestEntry".equals(m.getName()));
+    }
+
+    private static boolean initializesBounded(JavaField field) {
+        return field.getOwner().getStaticInitializer().map(initializer -> {
+            for (var access : initializer.getFieldAccesses()) {
+                if (access.getAccessType() != JavaFieldAccess.AccessType.SET
+                        || !access.getTarget().resolveMember().filter(field::equals).isPresent()) {
+                    continue;
+                }
+                for (var call : initializer.getConstructorCallsFromSelf()) {
+                    if (call.getLineNumber() == access.getLineNumber() && isBounded(call.getTargetOwner())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }).orElse(false);
+    }
+
+    private static boolean isGrowing(JavaField field) {
+        for (var call : FieldValueCalls.of(field)) {
+            if (!(call.getOrigin() instanceof JavaStaticInitializer) && GROWING_METHODS.contains(call.getName())
+                    && isCollection(call.getTargetOwner())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean registersListeners(JavaClass item, JavaCodeUnit codeUnit) {
+        for (var call : codeUnit.getMethodCallsFromSelf()) {
+            if (!call.getTargetOwner().equals(item) && REGISTRATION.matcher(call.getName()).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean deregistersListeners(JavaClass item) {
+        for (var call : item.getMethodCallsFromSelf()) {
+            if (DEREGISTRATION.matcher(call.getName()).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> capturingListenersOf(JavaClass item, JavaCodeUnit codeUnit) {
+        var result = new ArrayList<String>();
+        for (var call : codeUnit.getConstructorCallsFromSelf()) {
+            var type = call.getTargetOwner();
+            if (type.isInnerClass() && type.getEnclosingClass().filter(item::equals).isPresent()) {
+                result.add("inner class " + type.getName());
+            }
+        }
+        for (var reference : codeUnit.getMethodReferencesFromSelf()) {
+            if (reference.getTargetOwner().equals(item)) {
+                reference.getTarget().resolveMember()
+                        .filter(m -> !m.getModifiers().contains(JavaModifier.STATIC))
+                        .ifPresent(m -> result.add("this::" + m.getName()));
+            }
+        }
+        return result;
+    }
+
+    private static boolean isRemoved(JavaField field) {
+        for (var call : FieldValueCalls.of(field)) {
+            if ("remove".equals(call.getName()) && call.getTargetOwner().isAssignableTo(ThreadLocal.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JavaClass boxedElementOf(JavaField field) {
+        var rawType = field.getRawType();
+        if (rawType.isArray()) {
+            return BOXED_TYPES.contains(rawType.getComponentType().getName()) ? rawType.getComponentType() : null;
+        }
+        if (rawType.isAssignableTo(Collection.class) && field.getType() instanceof JavaParameterizedType parameterized) {
+            var arguments = parameterized.getActualTypeArguments();
+            if (arguments.size() == 1 && BOXED_TYPES.contains(arguments.get(0).getName())) {
+                return arguments.get(0).toErasure();
+            }
+        }
+        return null;
+    }
+
+    private static String primitiveNameOf(JavaClass boxed) {
+        return Character.class.getName().equals(boxed.getName()) ? "char"
+                : Integer.class.getName().equals(boxed.getName()) ? "int"
+                : boxed.getSimpleName().toLowerCase();
+    }
+}
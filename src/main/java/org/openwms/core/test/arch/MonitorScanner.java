@@ -0,0 +1,233 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaAccess;
+import com.tngtech.archunit.core.domain.JavaClass;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A MonitorScanner finds the code regions of a class that hold a monitor, that are {@literal synchronized} methods and
+ * {@literal synchronized} blocks, and the method invocations within these regions.
+ *
+ * ArchUnit does not model monitors, so the class file of an imported class is read again with ASM. The scan is linear: a
+ * {@literal MONITORENTER} opens a region and the next {@literal MONITOREXIT} closes it. A {@literal MONITOREXIT} in a
+ * compiler generated catch-any handler, up to its {@literal ATHROW}, is skipped if it releases a monitor entered before the
+ * handler, so a {@literal synchronized} block within a {@literal finally} block still closes its own region. Results are
+ * kept in an {@link ImportCache} as long as the class is referenced.
+ *
+ * @author Heiko Scherrer
+ */
+final class MonitorScanner {
+
+    private static final ImportCache<JavaClass, Map<String, List<SynchronizedRegion>>> REGIONS = new ImportCache<>(MonitorScanner::scan);
+
+    private MonitorScanner() {}
+
+    /**
+     * A code region that holds a monitor.
+     *
+     * @param member The name and descriptor of the method the region is declared in
+     * @param lock A description of the monitor, like {@literal this}, {@literal Foo.class} or {@literal Foo.lock}
+     * @param synchronizedMethod Whether the region is a whole {@literal synchronized} method
+     * @param invocations The invocations within the region, as {@literal owner.name:line}
+     */
+    record SynchronizedRegion(String member, String lock, boolean synchronizedMethod, Set<String> invocations) {
+
+        boolean contains(String owner, String name, int line) {
+            return invocations.contains(key(owner, name, line));
+        }
+    }
+
+    /**
+     * Returns the innermost region holding a monitor the given access is made in.
+     *
+     * @param access The access
+     * @return The region or empty if no monitor is held or the class file is not available
+     */
+    static Optional<SynchronizedRegion> enclosingRegion(JavaAccess<?> access) {
+        var origin = access.getOrigin();
+        var regions = regionsOf(origin.getOwner()).get(origin.getName() + origin.getDescriptor());
+        if (regions == null) {
+            return Optional.empty();
+        }
+        var owner = access.getTargetOwner().getName();
+        for (var i = regions.size() - 1; i >= 0; i--) {
+            if (regions.get(i).contains(owner, access.getName(), access.getLineNumber())) {
+                return Optional.of(regions.get(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns all regions of the given class that hold a monitor, by the name and descriptor of the declaring method.
+     *
+     * @param javaClass The class
+     * @return The regions, empty if the class has none or the class file is not available
+     */
+    static Map<String, List<SynchronizedRegion>> regionsOf(JavaClass javaClass) {
+        return REGIONS.get(javaClass);
+    }
+
+    private static Map<String, List<SynchronizedRegion>> scan(JavaClass javaClass) {
+        var source = javaClass.getSource();
+        if (source.isEmpty()) {
+            return Map.of();
+        }
+        try (InputStream in = source.get().getUri().toURL().openStream()) {
+            var visitor = new RegionCollector();
+            new ClassReader(in).accept(visitor, ClassReader.SKIP_FRAMES);
+            return visitor.regions;
+        } catch (IOException | RuntimeException e) {
+            return Map.of();
+        }
+    }
+
+    private static String key(String owner, String name, int line) {
+        return owner + '.' + name + ':' + line;
+    }
+
+    private static String simpleName(String internalName) {
+        return internalName.substring(internalName.lastIndexOf('/') + 1);
+    }
+
+    private static final class RegionCollector extends ClassVisitor {
+
+        private final Map<String, List<SynchronizedRegion>> regions = new HashMap<>();
+        private String className;
+
+        RegionCollector() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            className = name;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            var member = name + descriptor;
+            var isStatic = (access & Opcodes.ACC_STATIC) != 0;
+            var methodRegions = new ArrayList<SynchronizedRegion>();
+            var open = new ArrayDeque<SynchronizedRegion>();
+            if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                var lock = isStatic ? simpleName(className) + ".class" : "this";
+                var region = new SynchronizedRegion(member, lock, true, new HashSet<>());
+                methodRegions.add(region);
+                open.push(region);
+            }
+            return new MethodVisitor(Opcodes.ASM9) {
+
+                private final Set<Label> handlers = new HashSet<>();
+                /** The number of open regions at the start of each catch-any handler that is currently visited. */
+                private final ArrayDeque<Integer> handlerFrames = new ArrayDeque<>();
+                private int line;
+                private String lastLoaded;
+
+                @Override
+                public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+                    if (type == null) {
+                        handlers.add(handler);
+                    }
+                }
+
+                @Override
+                public void visitLabel(Label label) {
+                    if (handlers.contains(label)) {
+                        handlerFrames.push(open.size());
+                    }
+                }
+
+                @Override
+                public void visitLineNumber(int lineNumber, Label start) {
+                    line = lineNumber;
+                }
+
+                @Override
+                public void visitVarInsn(int opcode, int varIndex) {
+                    if (opcode == Opcodes.ALOAD) {
+                        lastLoaded = varIndex == 0 && !isStatic ? "this" : "local variable";
+                    }
+                }
+
+                @Override
+                public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                    if (opcode == Opcodes.GETFIELD || opcode == Opcodes.GETSTATIC) {
+                        lastLoaded = simpleName(owner) + '.' + name;
+                    }
+                }
+
+                @Override
+                public void visitLdcInsn(Object value) {
+                    if (value instanceof Type type) {
+                        lastLoaded = simpleName(type.getInternalName()) + ".class";
+                    }
+                }
+
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                    var invocation = key(Type.getObjectType(owner).getClassName(), name, line);
+                    for (var region : open) {
+                        region.invocations().add(invocation);
+                    }
+                    lastLoaded = "result of " + simpleName(owner) + '.' + name + "()";
+                }
+
+                @Override
+                public void visitInsn(int opcode) {
+                    if (opcode == Opcodes.MONITORENTER) {
+                        var lock = lastLoaded == null ? "unknown" : lastLoaded;
+                        var region = new SynchronizedRegion(member, lock, false, new HashSet<>());
+                        methodRegions.add(region);
+                        open.push(region);
+                    } else if (opcode == Opcodes.MONITOREXIT) {
+                        var releasesOuterMonitor = !handlerFrames.isEmpty() && open.size() <= handlerFrames.peek();
+                        if (!releasesOuterMonitor && !open.isEmpty() && !open.peek().synchronizedMethod()) {
+                            open.pop();
+                        }
+                    } else if (opcode == Opcodes.ATHROW && !handlerFrames.isEmpty()) {
+                        handlerFrames.pop();
+                    }
+                }
+
+                @Override
+                public void visitEnd() {
+                    if (!methodRegions.isEmpty()) {
+                        regions.put(member, List.copyOf(methodRegions));
+                    }
+                }
+            };
+        }
+    }
+}
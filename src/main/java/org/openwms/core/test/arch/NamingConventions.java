@@ -0,0 +1,200 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A NamingConventions is a factory for {@link ArchCondition}s on the simple names of classes.
+ *
+ * The conventions are expressed as {@link NameMatcher}s. The built-in ones are hand-written character scanners that neither
+ * compile a regular expression nor allocate per checked class. Own conventions can be composed from them or, if nothing
+ * else fits, from a precompiled {@link Pattern}.
+ *
+ * @author Heiko Scherrer
+ */
+public final class NamingConventions {
+
+    /**
+     * Matches a simple name like {@literal (package-info|[A-Z][_$a-zA-Z]+)}, a type name that starts with an upper case letter
+     * and contains no digits.
+     */
+    public static final NameMatcher TYPE_NAME_WITHOUT_DIGITS = NamingConventions::isTypeNameWithoutDigits;
+
+    /**
+     * Matches a simple name like {@literal I[A-Z][a-z$_].*}, an interface name prefixed with an I, like {@literal IOrderService}.
+     */
+    public static final NameMatcher I_PREFIXED = NamingConventions::isIPrefixed;
+
+    private NamingConventions() {}
+
+    /**
+     * A NameMatcher checks a simple name against a naming convention.
+     */
+    @FunctionalInterface
+    public interface NameMatcher {
+
+        /**
+         * Checks the given name.
+         *
+         * @param name The simple name
+         * @return {@literal true} if the name matches the convention
+         */
+        boolean matches(String name);
+
+        /**
+         * Matches if this or the other matcher matches.
+         *
+         * @param other The other matcher
+         * @return The combined matcher
+         */
+        default NameMatcher or(NameMatcher other) {
+            return name -> matches(name) || other.matches(name);
+        }
+
+        /**
+         * Matches if this and the other matcher match.
+         *
+         * @param other The other matcher
+         * @return The combined matcher
+         */
+        default NameMatcher and(NameMatcher other) {
+            return name -> matches(name) && other.matches(name);
+        }
+
+        /**
+         * Matches if this matcher does not match.
+         *
+         * @return The negated matcher
+         */
+        default NameMatcher negate() {
+            return name -> !matches(name);
+        }
+
+        /**
+         * Matches one of the given names exactly.
+         *
+         * @param names The names
+         * @return The matcher
+         */
+        static NameMatcher isAnyOf(String... names) {
+            var set = Set.of(names);
+            return set::contains;
+        }
+
+        /**
+         * Matches names that start with the given prefix.
+         *
+         * @param prefix The prefix
+         * @return The matcher
+         */
+        static NameMatcher startsWith(String prefix) {
+            return name -> name.startsWith(prefix);
+        }
+
+        /**
+         * Matches names that end with the given suffix.
+         *
+         * @param suffix The suffix
+         * @return The matcher
+         */
+        static NameMatcher endsWith(String suffix) {
+            return name -> name.endsWith(suffix);
+        }
+
+        /**
+         * Matches names that match the given pattern as a whole. The pattern is compiled once, but a {@link java.util.regex.Matcher}
+         * is created per name, so prefer the scanners where possible.
+         *
+         * @param regex The regular expression
+         * @return The matcher
+         */
+        static NameMatcher matching(String regex) {
+            var pattern = Pattern.compile(regex);
+            return name -> pattern.matcher(name).matches();
+        }
+    }
+
+    /**
+     * Creates a condition that is violated by classes whose simple name does not match the convention.
+     *
+     * @param description The description of the condition, like {@literal have a name without numeric values}
+     * @param convention The convention the simple name must match
+     * @param violationFormat The message of a violation with a {@literal %s} placeholder for the simple name
+     * @return The condition
+     */
+    public static ArchCondition<JavaClass> haveSimpleNameMatching(String description, NameMatcher convention, String violationFormat) {
+        return new ArchCondition<>(description) {
+            @Override
+            public void check(JavaClass item, ConditionEvents events) {
+                var simpleName = item.getSimpleName();
+                if (!convention.matches(simpleName)) {
+                    events.add(SimpleConditionEvent.violated(item, violationFormat.formatted(simpleName)));
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a condition that is violated by classes whose simple name matches the convention.
+     *
+     * @param description The description of the condition, like {@literal have a name not prefixed with an I}
+     * @param convention The convention the simple name must not match
+     * @param violationFormat The message of a violation with a {@literal %s} placeholder for the simple name
+     * @return The condition
+     */
+    public static ArchCondition<JavaClass> haveSimpleNameNotMatching(String description, NameMatcher convention, String violationFormat) {
+        return haveSimpleNameMatching(description, convention.negate(), violationFormat);
+    }
+
+    private static boolean isTypeNameWithoutDigits(String name) {
+        if ("package-info".equals(name)) {
+            return true;
+        }
+        if (name.length() < 2 || !isUpperCase(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            var c = name.charAt(i);
+            if (!isUpperCase(c) && !isLowerCase(c) && c != '_' && c != '$') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIPrefixed(String name) {
+        if (name.length() < 3 || name.charAt(0) != 'I' || !isUpperCase(name.charAt(1))) {
+            return false;
+        }
+        var c = name.charAt(2);
+        return isLowerCase(c) || c == '$' || c == '_';
+    }
+
+    private static boolean isUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isLowerCase(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+}
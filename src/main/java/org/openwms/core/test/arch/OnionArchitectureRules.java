@@ -20,31 +20,41 @@ import com.tngtech.archunit.junit.AnalyzeClasses;
 import com.tngtech.archunit.junit.ArchTest;
 import com.tngtech.archunit.junit.CacheMode;
 import com.tngtech.archunit.lang.ArchRule;
-import com.tngtech.archunit.library.Architectures;
-import com.tngtech.archunit.library.dependencies.SlicesRuleDefinition;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.all;
 
 /**
- * A OnionArchitectureRules.
+ * A OnionArchitectureRules class defines the dependency rules between the layers of an onion architecture. Both rules are
+ * checked against the shared {@link LayerIndex} of the {@link #LAYERS}.
  *
  * @author Heiko Scherrer
  */
-@AnalyzeClasses(packages = "org.openwms", cacheMode = CacheMode.PER_CLASS, importOptions = {
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
         ImportOption.DoNotIncludeTests.class,
-        ImportOption.DoNotIncludeJars.class
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
 })
 public class OnionArchitectureRules {
 
+    /** The layers of the onion architecture, each adapter is a slice of its own. */
+    public static final LayerIndex.Definition LAYERS = LayerIndex.define()
+            .layer("adapter", "..adapter.(*)..", "..adapter..")
+            .layer("domain", "..domain..")
+            .layer("application", "..application..");
+
     @ArchTest
-    public final ArchRule adaptersShouldNotDependOnEachOther =
-            SlicesRuleDefinition.slices().matching("..adapter.(*)..").should().notDependOnEachOther().allowEmptyShould(true);
+    public final ArchRule adaptersShouldNotDependOnEachOther = ScopedArchRule.classLocal(
+            all(LAYERS.edges())
+                    .should(LayerIndex.slicesNotDependOnEachOther("adapter"))
+                    .as("adapters should not depend on each other")
+                    .allowEmptyShould(true));
 
     @ArchTest
-    public final ArchRule onionArchitecture =
-            Architectures.layeredArchitecture()
-                    .consideringAllDependencies()
-                    .layer("adapter").definedBy("..adapter..")
-                    .layer("domain").definedBy("..domain..")
-                    .layer("application").definedBy("..application..")
-                    .whereLayer("adapter").mayNotBeAccessedByAnyLayer()
-                    .whereLayer("application").mayOnlyBeAccessedByLayers("adapter").allowEmptyShould(true);
+    public final ArchRule onionArchitecture = ScopedArchRule.classLocal(
+            all(LAYERS.edges())
+                    .should(LayerIndex.mayNotBeAccessedByAnyLayer("adapter")
+                            .and(LayerIndex.mayOnlyBeAccessedByLayers("application", "adapter")))
+                    .as("the onion architecture should be respected")
+                    .allowEmptyShould(true));
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.ArchConfiguration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * A ResolutionProfile is a preset of how far ArchUnit resolves the types that imported classes refer to from the classpath.
+ *
+ * Each profile is defined by a properties file next to this class, {@literal archunit-fast.properties} and
+ * {@literal archunit-complete.properties}, that can also be copied into the {@literal archunit.properties} of a component.
+ * The profile configured with the {@value #PROFILE_KEY} setting is applied for the import of the {@link ImportSession} or
+ * the ArchUnit JUnit engine only, see {@link ScanScope}, and the previous {@link ArchConfiguration} is restored afterwards,
+ * so that other imports of the JVM are not affected.
+ *
+ * {@link #FAST} does not resolve supertypes beyond three levels, enclosing types and generic type arguments of classes
+ * outside the import. Rules asking for these lose precision and may miss violations:
+ * <ul>
+ *     <li>{@literal SpringStartupRules.noHeavyWorkInBeanInitialization} for beans implementing {@literal InitializingBean}
+ *     through more than three supertypes of the classpath</li>
+ *     <li>{@literal PresentationRules.listEndpointsMustBePaged} and {@literal endpointsMustNotReturnEntities} for collections
+ *     given as type argument of a {@literal ResponseEntity}</li>
+ *     <li>{@literal MemoryRules} and {@literal ConcurrencyRules} for collection, listener and {@literal ThreadLocal} types of
+ *     libraries with deep type hierarchies</li>
+ * </ul>
+ *
+ * @author Heiko Scherrer
+ */
+public enum ResolutionProfile {
+
+    /**
+     * Resolves only the annotations, meta-annotations and the first three levels of supertypes the rules of this library
+     * need, with the loss of precision listed above.
+     */
+    FAST("archunit-fast.properties"),
+    /** Resolves like ArchUnit does by default. */
+    COMPLETE("archunit-complete.properties");
+
+    /** The setting with the name of the profile to apply, not set to keep the ArchUnit configuration untouched. */
+    public static final String PROFILE_KEY = "resolution.profile";
+    /** The values replaced by the configured profile for the import of the ArchUnit JUnit engine, until restored. */
+    private static Map<String, String> replaced;
+    private final String resource;
+
+    ResolutionProfile(String resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Returns the properties of the profile.
+     *
+     * @return The ArchUnit properties
+     * @throws UncheckedIOException If the preset cannot be read
+     */
+    public Properties getProperties() {
+        var properties = new Properties();
+        try (var in = ResolutionProfile.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Preset [%s] not found".formatted(resource));
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read preset " + resource, e);
+        }
+        return properties;
+    }
+
+    /**
+     * Applies the profile to the {@link ArchConfiguration}, affecting all following imports. Prefer
+     * {@link #applyDuring(Supplier)} to keep other imports of the JVM untouched.
+     */
+    public void apply() {
+        replace();
+    }
+
+    /**
+     * Applies the profile while the given import runs and restores the previous {@link ArchConfiguration} afterwards.
+     *
+     * @param importer The import
+     * @param <T> The type of the result
+     * @return The result of the import
+     */
+    public <T> T applyDuring(Supplier<T> importer) {
+        var previous = replace();
+        try {
+            return importer.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs the given import with the profile of the {@value #PROFILE_KEY} setting applied, if set.
+     *
+     * @param importer The import
+     * @param <T> The type of the result
+     * @return The result of the import
+     * @throws IllegalArgumentException If the setting is not the name of a profile
+     */
+    public static <T> T withConfigured(Supplier<T> importer) {
+        var profile = configured();
+        return profile == null ? importer.get() : profile.applyDuring(importer);
+    }
+
+    /**
+     * Applies the profile of the {@value #PROFILE_KEY} setting, if set, until {@link #restoreConfigured()} is called. For the
+     * ArchUnit JUnit engine, that imports right after it asked the {@link ScanScope} for the locations.
+     *
+     * @throws IllegalArgumentException If the setting is not the name of a profile
+     */
+    static synchronized void applyConfiguredUntilRestored() {
+        var profile = configured();
+        if (profile != null && replaced == null) {
+            replaced = profile.replace();
+        }
+    }
+
+    /**
+     * Restores the {@link ArchConfiguration} replaced by {@link #applyConfiguredUntilRestored()}, if any.
+     */
+    static synchronized void restoreConfigured() {
+        if (replaced != null) {
+            restore(replaced);
+            replaced = null;
+        }
+    }
+
+    private static ResolutionProfile configured() {
+        var name = ArchSettings.get(PROFILE_KEY, null);
+        return name == null ? null : valueOf(name.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Sets the properties of the profile and returns the values they replaced, the ArchUnit defaults of {@link #COMPLETE}
+     * for properties that were not set.
+     */
+    private Map<String, String> replace() {
+        var configuration = ArchConfiguration.get();
+        var properties = getProperties();
+        var defaults = this == COMPLETE ? properties : COMPLETE.getProperties();
+        var previous = new HashMap<String, String>();
+        for (var name : properties.stringPropertyNames()) {
+            previous.put(name, configuration.containsProperty(name)
+                    ? configuration.getProperty(name)
+                    : defaults.getProperty(name, properties.getProperty(name)));
+            configuration.setProperty(name, properties.getProperty(name));
+        }
+        return previous;
+    }
+
+    private static void restore(Map<String, String> previous) {
+        var configuration = ArchConfiguration.get();
+        previous.forEach(configuration::setProperty);
+    }
+}
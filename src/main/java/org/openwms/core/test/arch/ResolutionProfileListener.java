@@ -0,0 +1,48 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * A ResolutionProfileListener restores the {@link com.tngtech.archunit.ArchConfiguration} that the configured
+ * {@link ResolutionProfile} replaced for the import of the ArchUnit JUnit engine.
+ *
+ * The engine imports the classes when the first rule of a test class is executed, so the configuration is restored when
+ * that rule has finished and tests of other engines import with the configuration of the component. The listener is
+ * registered automatically with the JUnit Platform.
+ *
+ * @author Heiko Scherrer
+ */
+public class ResolutionProfileListener implements TestExecutionListener {
+
+    private static final String ARCHUNIT_ENGINE = "[engine:archunit]";
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        if (testIdentifier.getUniqueId().startsWith(ARCHUNIT_ENGINE)) {
+            ResolutionProfile.restoreConfigured();
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        ResolutionProfile.restoreConfigured();
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A RuleMetrics records the wall time, CPU time and allocated bytes of the evaluation of each rule and writes them into a
+ * CSV report sorted by wall time.
+ *
+ * The recording is enabled with the {@value #ENABLED_KEY} setting. A rule exceeds its budget if its wall time is above
+ * the milliseconds configured with {@literal metrics.budget.ms.<RuleClass>.<field>}, or with {@value #BUDGET_KEY} for all
+ * rules. CPU time and allocated bytes are taken from the {@link com.sun.management.ThreadMXBean} of the evaluating thread
+ * and reported as {@literal -1} if the JVM does not support that. A measurement during which classes have been imported,
+ * like the first rule of an {@link com.tngtech.archunit.junit.AnalyzeClasses} test class that triggers the lazy import,
+ * is marked as such and not checked against the budget.
+ *
+ * @author Heiko Scherrer
+ */
+public final class RuleMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleMetrics.class);
+    /** The setting to enable the recording. */
+    public static final String ENABLED_KEY = "metrics.enabled";
+    /** The setting with the path of the CSV report. */
+    public static final String REPORT_KEY = "metrics.report";
+    /** The default path of the CSV report. */
+    public static final String DEFAULT_REPORT = "target/archunit-openwms/rule-metrics.csv";
+    /** The setting with the budget of the wall time per rule in milliseconds, {@literal 0} means no budget. */
+    public static final String BUDGET_KEY = "metrics.budget.ms";
+    private static final RuleMetrics INSTANCE = new RuleMetrics();
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private static final LongAdder IMPORTED_LOCATIONS = new LongAdder();
+    private static final ThreadLocal<String> CURRENT_RULE = new ThreadLocal<>();
+
+    private final ConcurrentLinkedQueue<Measurement> measurements = new ConcurrentLinkedQueue<>();
+
+    private RuleMetrics() {}
+
+    /**
+     * The measured cost of one rule.
+     *
+     * @param rule The name of the rule, in the form {@literal SimpleClassName.fieldName}
+     * @param wallNanos The elapsed time
+     * @param cpuNanos The CPU time of the evaluating thread, {@literal -1} if unknown
+     * @param allocatedBytes The bytes allocated by the evaluating thread, {@literal -1} if unknown
+     * @param includesImport Whether classes have been imported during the measurement
+     */
+    public record Measurement(String rule, long wallNanos, long cpuNanos, long allocatedBytes, boolean includesImport) {
+
+        /**
+         * Returns the budget of this rule.
+         *
+         * @return The budget in milliseconds, {@literal 0} if there is none
+         */
+        public long budgetMillis() {
+            return RuleMetrics.budgetMillis(rule);
+        }
+
+        /**
+         * Checks whether the wall time is above the budget. Measurements that include an import are never above.
+         *
+         * @return {@literal true} if the budget is exceeded
+         */
+        public boolean exceedsBudget() {
+            var budget = budgetMillis();
+            return budget > 0 && !includesImport && wallNanos / 1_000_000 > budget;
+        }
+    }
+
+    /**
+     * The counters of the current thread at the start of a measurement.
+     *
+     * @param threadId The id of the measured thread
+     * @param wallNanos The start time
+     * @param cpuNanos The CPU time of the thread
+     * @param allocatedBytes The bytes allocated by the thread
+     * @param importedLocations The number of locations imported so far
+     */
+    public record Sample(long threadId, long wallNanos, long cpuNanos, long allocatedBytes, long importedLocations) {}
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isCurrentThreadCpuTimeSupported() && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadCpuTimeEnabled(true);
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the JVM wide recorder.
+     *
+     * @return The instance
+     */
+    public static RuleMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks whether the recording is enabled.
+     *
+     * @return {@literal true} if enabled
+     */
+    public static boolean isEnabled() {
+        return ArchSettings.getBoolean(ENABLED_KEY, false);
+    }
+
+    /**
+     * Returns the budget of the given rule.
+     *
+     * @param rule The name of the rule, in the form {@literal SimpleClassName.fieldName}
+     * @return The budget in milliseconds, {@literal 0} if there is none
+     */
+    static long budgetMillis(String rule) {
+        return ArchSettings.getInt(BUDGET_KEY + "." + rule, ArchSettings.getInt(BUDGET_KEY, 0));
+    }
+
+    /**
+     * Returns the failure message of a rule that exceeds its budget.
+     *
+     * @param wallNanos The elapsed time
+     * @param budgetMillis The budget
+     * @return The message
+     */
+    static String budgetMessage(long wallNanos, long budgetMillis) {
+        return "Rule took %d ms and exceeds its budget of %d ms".formatted(wallNanos / 1_000_000, budgetMillis);
+    }
+
+    /**
+     * Sets the name of the rule the current thread evaluates, called by the {@link RuleMetricsListener} when the ArchUnit
+     * JUnit engine starts a rule.
+     *
+     * @param rule The name of the rule, {@literal null} when the rule has finished
+     */
+    static void setCurrentRule(String rule) {
+        if (rule == null) {
+            CURRENT_RULE.remove();
+        } else {
+            CURRENT_RULE.set(rule);
+        }
+    }
+
+    /**
+     * Returns the name of the rule the current thread evaluates on behalf of the ArchUnit JUnit engine.
+     *
+     * @return The name or {@literal null} if the thread does not evaluate a rule of the engine or the recording is disabled
+     */
+    static String currentRule() {
+        return CURRENT_RULE.get();
+    }
+
+    /**
+     * Counts a location imported by a class import, called by the {@link ArchConstants.RecordFingerprints} option.
+     */
+    static void locationImported() {
+        IMPORTED_LOCATIONS.increment();
+    }
+
+    /**
+     * Returns the number of locations imported in this JVM so far, by all class imports with the
+     * {@link ArchConstants.RecordFingerprints} option.
+     *
+     * @return The number of locations
+     */
+    static long importedLocations() {
+        return IMPORTED_LOCATIONS.sum();
+    }
+
+    /**
+     * Takes the counters of the current thread.
+     *
+     * @return The start sample
+     */
+    public static Sample start() {
+        return new Sample(Thread.currentThread().threadId(), System.nanoTime(),
+                THREADS == null ? -1 : THREADS.getCurrentThreadCpuTime(),
+                THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes(),
+                importedLocations());
+    }
+
+    /**
+     * Takes the counters of the current thread and records the difference to the given sample.
+     *
+     * @param rule The name of the measured rule
+     * @param start The sample taken when the evaluation has started
+     * @return The recorded measurement
+     */
+    public Measurement stop(String rule, Sample start) {
+        var wall = System.nanoTime() - start.wallNanos();
+        long cpu = -1;
+        long allocated = -1;
+        if (THREADS != null && start.cpuNanos() >= 0 && start.threadId() == Thread.currentThread().threadId()) {
+            cpu = THREADS.getCurrentThreadCpuTime() - start.cpuNanos();
+            allocated = THREADS.getCurrentThreadAllocatedBytes() - start.allocatedBytes();
+        }
+        var measurement = new Measurement(rule, wall, cpu, allocated, importedLocations() != start.importedLocations());
+        measurements.add(measurement);
+        return measurement;
+    }
+
+    /**
+     * Returns all recorded measurements.
+     *
+     * @return The measurements, the most expensive one first
+     */
+    public List<Measurement> getMeasurements() {
+        var result = new ArrayList<>(measurements);
+        result.sort(Comparator.comparingLong(Measurement::wallNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Writes all recorded measurements to the CSV report configured with {@value #REPORT_KEY}.
+     *
+     * @return The path of the report
+     * @throws UncheckedIOException If the report cannot be written
+     */
+    public Path writeReport() {
+        var report = Path.of(ArchSettings.get(REPORT_KEY, DEFAULT_REPORT));
+        var lines = new ArrayList<String>();
+        lines.add("rule,wall_ms,cpu_ms,allocated_bytes,includes_import,budget_ms,exceeds_budget");
+        for (var m : getMeasurements()) {
+            lines.add("%s,%d,%d,%d,%s,%d,%s".formatted(m.rule(), m.wallNanos() / 1_000_000,
+                    m.cpuNanos() < 0 ? -1 : m.cpuNanos() / 1_000_000, m.allocatedBytes(), m.includesImport(), m.budgetMillis(),
+                    m.exceedsBudget()));
+        }
+        try {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            Files.write(report, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write rule metrics report " + report, e);
+        }
+        LOGGER.info("Wrote metrics of [{}] rules to [{}]", lines.size() - 1, report);
+        return report;
+    }
+}
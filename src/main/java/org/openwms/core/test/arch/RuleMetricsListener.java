@@ -0,0 +1,90 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.FieldSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A RuleMetricsListener records the {@link RuleMetrics} of each {@link com.tngtech.archunit.junit.ArchTest} executed by the
+ * ArchUnit JUnit engine and writes the report when the test plan has finished. Tests of other engines are not recorded.
+ *
+ * The listener is registered automatically with the JUnit Platform and does nothing unless the
+ * {@value RuleMetrics#ENABLED_KEY} setting is enabled. The JUnit Platform does not let a listener fail a test, so the
+ * listener passes the name of the running rule to the {@link ScopedArchRule}, that reports an exceeded budget as violation.
+ * Rules of other classes that exceed their budget are only logged as warning.
+ *
+ * @author Heiko Scherrer
+ */
+public class RuleMetricsListener implements TestExecutionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleMetricsListener.class);
+    private static final String ARCHUNIT_ENGINE = "[engine:archunit]";
+    private final boolean enabled = RuleMetrics.isEnabled();
+    private final Map<String, RuleMetrics.Sample> running = new ConcurrentHashMap<>();
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (enabled && testIdentifier.isTest() && testIdentifier.getUniqueId().startsWith(ARCHUNIT_ENGINE)) {
+            running.put(testIdentifier.getUniqueId(), RuleMetrics.start());
+            RuleMetrics.setCurrentRule(nameOf(testIdentifier));
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        var sample = enabled ? running.remove(testIdentifier.getUniqueId()) : null;
+        if (sample != null) {
+            RuleMetrics.setCurrentRule(null);
+            var measurement = RuleMetrics.get().stop(nameOf(testIdentifier), sample);
+            if (measurement.exceedsBudget()) {
+                LOGGER.warn("Rule [{}] took [{}] ms and exceeds its budget of [{}] ms", measurement.rule(),
+                        measurement.wallNanos() / 1_000_000, measurement.budgetMillis());
+            }
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (enabled && !RuleMetrics.get().getMeasurements().isEmpty()) {
+            RuleMetrics.get().writeReport();
+        }
+    }
+
+    private static String nameOf(TestIdentifier testIdentifier) {
+        var source = testIdentifier.getSource().orElse(null);
+        if (source instanceof FieldSource fieldSource) {
+            return simpleName(fieldSource.getClassName()) + "." + fieldSource.getFieldName();
+        }
+        if (source instanceof MethodSource methodSource) {
+            return simpleName(methodSource.getClassName()) + "." + methodSource.getMethodName();
+        }
+        return testIdentifier.getDisplayName();
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
+import com.tngtech.archunit.core.importer.Locations;
+import com.tngtech.archunit.junit.LocationProvider;
+
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A ScanScope is the {@link LocationProvider} of all rule classes of this library and defines which classes are imported.
+ *
+ * By default all classes of the {@link ArchConstants#BASE_PACKAGE} on the classpath are imported. In a monorepo the scope
+ * is narrowed to the module under test with these settings:
+ * <ul>
+ *     <li>{@value #PACKAGES_KEY}: comma separated packages to import instead of the base package</li>
+ *     <li>{@value #ROOTS_KEY}: comma separated class directories of modules, only these are imported, restricted to the
+ *     packages</li>
+ *     <li>{@value #INCLUDES_KEY} and {@value #EXCLUDES_KEY}: comma separated globs on the URI of each class file, like
+ *     {@literal **}{@literal /legacy/**}, where {@literal *} does not cross a {@literal /} and {@literal **} does</li>
+ * </ul>
+ * The globs are applied by the {@link Filter} import option.
+ *
+ * @author Heiko Scherrer
+ */
+public final class ScanScope implements LocationProvider {
+
+    /** The setting with the packages to import. */
+    public static final String PACKAGES_KEY = "scope.packages";
+    /** The setting with the module roots to import. */
+    public static final String ROOTS_KEY = "scope.roots";
+    /** The setting with the globs of class files to include. */
+    public static final String INCLUDES_KEY = "scope.includes";
+    /** The setting with the globs of class files to exclude. */
+    public static final String EXCLUDES_KEY = "scope.excludes";
+
+    /**
+     * {@inheritDoc}
+     *
+     * The ArchUnit JUnit engine asks for the locations right before the import, so the configured
+     * {@link ResolutionProfile} is applied here as well. The {@link ResolutionProfileListener} restores the previous
+     * configuration once the first rule of the test class has finished, that is after the import.
+     */
+    @Override
+    public Set<Location> get(Class<?> testClass) {
+        ResolutionProfile.applyConfiguredUntilRestored();
+        return locations();
+    }
+
+    /**
+     * Returns the locations to import according to the current settings.
+     *
+     * @return The locations
+     */
+    public static Set<Location> locations() {
+        var roots = ArchSettings.getList(ROOTS_KEY, List.of());
+        var result = new LinkedHashSet<Location>();
+        if (roots.isEmpty()) {
+            for (var packageName : packages()) {
+                result.addAll(Locations.ofPackage(packageName));
+            }
+        } else {
+            for (var root : roots) {
+                result.add(Location.of(Path.of(root)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the packages to import according to the current settings.
+     *
+     * @return The packages
+     */
+    public static List<String> packages() {
+        return ArchSettings.getList(PACKAGES_KEY, List.of(ArchConstants.BASE_PACKAGE));
+    }
+
+    /**
+     * Converts a glob to a regular expression that matches the whole input.
+     *
+     * @param glob The glob, with {@literal **}, {@literal *} and {@literal ?} as wildcards
+     * @return The pattern
+     */
+    static Pattern toPattern(String glob) {
+        var regex = new StringBuilder(glob.length() + 16);
+        var literal = new StringBuilder();
+        for (var i = 0; i < glob.length(); i++) {
+            var c = glob.charAt(i);
+            if (c != '*' && c != '?') {
+                literal.append(c);
+                continue;
+            }
+            if (!literal.isEmpty()) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            if (c == '?') {
+                regex.append("[^/]");
+            } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else {
+                regex.append("[^/]*");
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * A class that implements the ImportOption interface to apply the include and exclude globs and, if module roots are
+     * configured, to restrict them to the packages of the scope.
+     */
+    public static class Filter implements ImportOption {
+
+        private final List<Pattern> includes = ArchSettings.getList(INCLUDES_KEY, List.of()).stream().map(ScanScope::toPattern).toList();
+        private final List<Pattern> excludes = ArchSettings.getList(EXCLUDES_KEY, List.of()).stream().map(ScanScope::toPattern).toList();
+        private final List<String> packageSegments = ArchSettings.getList(ROOTS_KEY, List.of()).isEmpty()
+                ? List.of()
+                : packages().stream().map(p -> "/" + p.replace('.', '/') + "/").toList();
+
+        @Override
+        public boolean includes(Location location) {
+            for (var exclude : excludes) {
+                if (location.matches(exclude)) {
+                    return false;
+                }
+            }
+            return (includes.isEmpty() || matchesAny(location, includes)) && (packageSegments.isEmpty() || containsAny(location));
+        }
+
+        private static boolean matchesAny(Location location, List<Pattern> patterns) {
+            for (var pattern : patterns) {
+                if (location.matches(pattern)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean containsAny(Location location) {
+            for (var segment : packageSegments) {
+                if (location.contains(segment)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
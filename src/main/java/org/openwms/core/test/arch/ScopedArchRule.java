@@ -0,0 +1,174 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+/**
+ * A ScopedArchRule decorates an {@link ArchRule} and narrows the classes it evaluates according to the active
+ * {@link IncrementalScope} and {@link Shard}.
+ *
+ * Without an active scope the delegate evaluates all classes. With an active scope an empty set of classes to check is
+ * expected and therefore always allowed. If sharded, class-local rules evaluate the classes of the current shard only and
+ * all other rules are evaluated by the first shard. Class-local rules stream their violations with the
+ * {@link ViolationStream} if it is enabled.
+ *
+ * If the rule is run by the ArchUnit JUnit engine with the {@link RuleMetrics} enabled, the evaluation is timed, without
+ * the import that is done before, and a rule that exceeds its budget is violated with the same message the
+ * {@link ArchRuleSuite} reports.
+ *
+ * @author Heiko Scherrer
+ */
+public final class ScopedArchRule implements ArchRule {
+
+    private final ArchRule delegate;
+    private final Narrowing narrowing;
+    private final boolean classLocal;
+    private final AnnotationIndex.Selection selection;
+
+    private ScopedArchRule(ArchRule delegate, Narrowing narrowing, boolean classLocal) {
+        this(delegate, narrowing, classLocal, null);
+    }
+
+    private ScopedArchRule(ArchRule delegate, Narrowing narrowing, boolean classLocal, AnnotationIndex.Selection selection) {
+        this.delegate = delegate;
+        this.narrowing = narrowing;
+        this.classLocal = classLocal;
+        this.selection = selection;
+    }
+
+    /**
+     * Narrows the classes passed to the delegate.
+     */
+    @FunctionalInterface
+    interface Narrowing {
+        JavaClasses narrow(IncrementalScope scope, JavaClasses classes);
+    }
+
+    /**
+     * Scopes a rule that checks each class on its own or the dependencies starting from each class.
+     *
+     * @param rule The rule to scope
+     * @return The scoped rule
+     */
+    public static ArchRule classLocal(ArchRule rule) {
+        return new ScopedArchRule(rule, IncrementalScope::affectedClasses, true);
+    }
+
+    /**
+     * Scopes a rule that checks each class on its own and applies to the classes of the selection only. The selection is
+     * taken from the {@link AnnotationIndex} of the evaluated classes before any other narrowing, the rule must still
+     * select its classes itself.
+     *
+     * @param rule The rule to scope
+     * @param selection Selects the candidates of the rule
+     * @return The scoped rule
+     */
+    public static ArchRule classLocal(ArchRule rule, AnnotationIndex.Selection selection) {
+        return new ScopedArchRule(rule, IncrementalScope::affectedClasses, true, selection);
+    }
+
+    /**
+     * Scopes a rule that checks the dependencies between slices, so that complete slices are evaluated: the affected ones
+     * and all slices reachable from these.
+     *
+     * @param rule The rule to scope
+     * @param packageIdentifier The package identifier of the slices the rule is defined on
+     * @return The scoped rule
+     */
+    public static ArchRule sliced(ArchRule rule, String packageIdentifier) {
+        return new ScopedArchRule(rule, (scope, classes) -> scope.affectedSlices(classes, packageIdentifier), false);
+    }
+
+    @Override
+    public void check(JavaClasses classes) {
+        Assertions.check(this, classes);
+    }
+
+    @Override
+    public EvaluationResult evaluate(JavaClasses classes) {
+        var name = RuleMetrics.currentRule();
+        if (name == null) {
+            return evaluateScoped(classes);
+        }
+        var start = System.nanoTime();
+        var result = evaluateScoped(classes);
+        var wallNanos = System.nanoTime() - start;
+        var budget = RuleMetrics.budgetMillis(name);
+        if (budget > 0 && wallNanos / 1_000_000 > budget) {
+            var events = ConditionEvents.Factory.create();
+            events.add(SimpleConditionEvent.violated(classes, RuleMetrics.budgetMessage(wallNanos, budget)));
+            result.add(new EvaluationResult(delegate, events, result.getPriority()));
+        }
+        return result;
+    }
+
+    private EvaluationResult evaluateScoped(JavaClasses classes) {
+        var rule = delegate;
+        var scoped = selection == null ? classes : AnnotationIndex.select(classes, selection);
+        if (IncrementalScope.isEnabled()) {
+            rule = rule.allowEmptyShould(true);
+            scoped = narrowing.narrow(IncrementalScope.get(), scoped);
+        }
+        if (Shard.isEnabled()) {
+            if (!classLocal && !Shard.isFirst()) {
+                // ArchRule does not expose its priority, an evaluation without classes returns it without violations
+                return delegate.allowEmptyShould(true).evaluate(new ClassFileImporter().importClasses());
+            }
+            if (classLocal) {
+                rule = rule.allowEmptyShould(true);
+                scoped = Shard.of(scoped);
+            }
+        }
+        return evaluate(rule, scoped);
+    }
+
+    private EvaluationResult evaluate(ArchRule rule, JavaClasses classes) {
+        return classLocal && ViolationStream.isEnabled()
+                ? ViolationStream.evaluate(rule, classes)
+                : rule.evaluate(classes);
+    }
+
+    @Override
+    public ArchRule because(String reason) {
+        return new ScopedArchRule(delegate.because(reason), narrowing, classLocal, selection);
+    }
+
+    @Override
+    public ArchRule allowEmptyShould(boolean allowEmptyShould) {
+        return new ScopedArchRule(delegate.allowEmptyShould(allowEmptyShould), narrowing, classLocal, selection);
+    }
+
+    @Override
+    public ArchRule as(String newDescription) {
+        return new ScopedArchRule(delegate.as(newDescription), narrowing, classLocal, selection);
+    }
+
+    @Override
+    public String getDescription() {
+        return delegate.getDescription();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+
+/**
+ * A Shard splits the evaluation of the rules across parallel CI jobs with the settings {@value #COUNT_KEY}, the number of
+ * jobs, and {@value #INDEX_KEY}, the zero based index of the current job.
+ *
+ * Each class belongs to exactly one shard, determined by the hash of its name, that is the same in every JVM. Class-local
+ * rules evaluate only the classes of the current shard, all other rules are evaluated by the first shard only.
+ *
+ * @author Heiko Scherrer
+ */
+public final class Shard {
+
+    /** The setting with the number of shards. */
+    public static final String COUNT_KEY = "shard.count";
+    /** The setting with the zero based index of the current shard. */
+    public static final String INDEX_KEY = "shard.index";
+
+    private Shard() {}
+
+    /**
+     * Checks whether the evaluation is split into more than one shard.
+     *
+     * @return {@literal true} if sharded
+     */
+    public static boolean isEnabled() {
+        return count() > 1;
+    }
+
+    /**
+     * Checks whether the current shard is the first one, that is also true without sharding.
+     *
+     * @return {@literal true} if first
+     * @throws IllegalArgumentException If the index is not within the number of shards
+     */
+    public static boolean isFirst() {
+        return index() == 0;
+    }
+
+    /**
+     * Returns the classes of the current shard.
+     *
+     * @param classes All classes
+     * @return The classes of the current shard
+     */
+    public static JavaClasses of(JavaClasses classes) {
+        var count = count();
+        var index = index();
+        return classes.that(DescribedPredicate.describe("are in shard %d of %d".formatted(index, count),
+                (JavaClass javaClass) -> isInShard(javaClass.getName(), count, index)));
+    }
+
+    /**
+     * Checks whether the class of the given name belongs to the current shard, for rules that do not evaluate imported
+     * classes, like the {@link HeaderRules}.
+     *
+     * @param className The fully qualified name of the class
+     * @return {@literal true} if in the current shard, always without sharding
+     */
+    public static boolean includes(String className) {
+        return isInShard(className, count(), index());
+    }
+
+    private static boolean isInShard(String className, int count, int index) {
+        return Math.floorMod(className.hashCode(), count) == index;
+    }
+
+    private static int count() {
+        var count = ArchSettings.getInt(COUNT_KEY, 1);
+        if (count < 1) {
+            throw new IllegalArgumentException("Setting [%s%s] must be at least 1: [%d]".formatted(ArchSettings.PREFIX, COUNT_KEY, count));
+        }
+        return count;
+    }
+
+    private static int index() {
+        var index = ArchSettings.getInt(INDEX_KEY, 0);
+        if (index < 0 || index >= count()) {
+            throw new IllegalArgumentException("Setting [%s%s] must be between 0 and [%s%s] - 1: [%d]"
+                    .formatted(ArchSettings.PREFIX, INDEX_KEY, ArchSettings.PREFIX, COUNT_KEY, index));
+        }
+        return index;
+    }
+}
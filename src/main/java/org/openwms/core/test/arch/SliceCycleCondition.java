@@ -0,0 +1,340 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.PackageMatcher;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A SliceCycleCondition checks that the slices of a package identifier, like {@literal org.openwms.(*)..}, are free of cycles.
+ *
+ * Instead of enumerating all cycle paths, the slices and their dependencies are collapsed into a primitive int graph and the
+ * strongly connected components are computed with Tarjan's algorithm, that is linear in the number of edges. Each component
+ * with more than one slice is reported with one representative shortest cycle and a few example dependencies per edge. The
+ * number of reported components is capped by the {@value #MAX_REPORTED_KEY} setting.
+ *
+ * @author Heiko Scherrer
+ */
+public final class SliceCycleCondition extends ArchCondition<JavaClass> {
+
+    /** The setting with the maximum number of reported cycles. */
+    public static final String MAX_REPORTED_KEY = "cycles.maxReported";
+    private static final int DEFAULT_MAX_REPORTED = 20;
+    private static final int MAX_EXAMPLES_PER_EDGE = 3;
+
+    private final PackageMatcher matcher;
+    private Collection<JavaClass> allClasses = List.of();
+
+    private SliceCycleCondition(String packageIdentifier) {
+        super("be free of cycles between slices matching '" + packageIdentifier + "'");
+        this.matcher = PackageMatcher.of(packageIdentifier);
+    }
+
+    /**
+     * Creates a condition that checks all classes passed to the rule for cycles between the slices of the package identifier.
+     *
+     * @param packageIdentifier Defines the slices by capturing groups, like {@literal org.openwms.(*)..}
+     * @return The condition
+     */
+    public static ArchCondition<JavaClass> beFreeOfSliceCycles(String packageIdentifier) {
+        return new SliceCycleCondition(packageIdentifier);
+    }
+
+    @Override
+    public void init(Collection<JavaClass> allObjectsToTest) {
+        this.allClasses = allObjectsToTest;
+    }
+
+    @Override
+    public void check(JavaClass item, ConditionEvents events) {
+        // the slice graph can only be checked as a whole when all classes are known
+    }
+
+    @Override
+    public void finish(ConditionEvents events) {
+        var graph = SliceGraph.of(matcher, allClasses);
+        var component = stronglyConnectedComponents(graph.size(), graph.offsets, graph.targets);
+        var reported = new boolean[graph.size()];
+        var sizes = new int[graph.size()];
+        for (int c : component) {
+            sizes[c]++;
+        }
+        var cycles = 0;
+        for (int v = 0; v < graph.size(); v++) {
+            // slice ids are sorted by name, so the first slice of each component is its representative
+            if (sizes[component[v]] > 1 && !reported[component[v]]) {
+                reported[component[v]] = true;
+                cycles++;
+                if (cycles <= maxReported()) {
+                    var path = shortestCycle(v, component, graph.offsets, graph.targets);
+                    events.add(SimpleConditionEvent.violated(graph.classesOf(v).get(0), describe(graph, path, sizes[component[v]])));
+                }
+            }
+        }
+        if (cycles > maxReported()) {
+            events.add(SimpleConditionEvent.violated(allClasses, "%d further cycles between slices are not reported (%s%s=%d)"
+                    .formatted(cycles - maxReported(), ArchSettings.PREFIX, MAX_REPORTED_KEY, maxReported())));
+        }
+        allClasses = List.of();
+    }
+
+    private static int maxReported() {
+        return ArchSettings.getInt(MAX_REPORTED_KEY, DEFAULT_MAX_REPORTED);
+    }
+
+    /**
+     * Computes the strongly connected components of a graph in compressed sparse row format with an iterative variant of
+     * Tarjan's algorithm.
+     *
+     * @return The component id of each node
+     */
+    static int[] stronglyConnectedComponents(int n, int[] offsets, int[] targets) {
+        var index = new int[n];
+        var low = new int[n];
+        var component = new int[n];
+        Arrays.fill(index, -1);
+        var stack = new int[n];
+        var onStack = new boolean[n];
+        var callNode = new int[n];
+        var callEdge = new int[n];
+        int sp = 0;
+        int counter = 0;
+        int components = 0;
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int cp = 0;
+            callNode[0] = root;
+            callEdge[0] = offsets[root];
+            index[root] = low[root] = counter++;
+            stack[sp++] = root;
+            onStack[root] = true;
+            while (cp >= 0) {
+                int v = callNode[cp];
+                if (callEdge[cp] < offsets[v + 1]) {
+                    int w = targets[callEdge[cp]++];
+                    if (index[w] < 0) {
+                        index[w] = low[w] = counter++;
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        cp++;
+                        callNode[cp] = w;
+                        callEdge[cp] = offsets[w];
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                } else {
+                    if (low[v] == index[v]) {
+                        int w;
+                        do {
+                            w = stack[--sp];
+                            onStack[w] = false;
+                            component[w] = components;
+                        } while (w != v);
+                        components++;
+                    }
+                    cp--;
+                    if (cp >= 0) {
+                        int u = callNode[cp];
+                        low[u] = Math.min(low[u], low[v]);
+                    }
+                }
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Finds the shortest cycle through the given node with a breadth first search restricted to the node's component.
+     *
+     * @return The nodes of the cycle, starting and ending with the given node
+     */
+    static int[] shortestCycle(int start, int[] component, int[] offsets, int[] targets) {
+        var parent = new HashMap<Integer, Integer>();
+        var queue = new ArrayList<Integer>();
+        queue.add(start);
+        parent.put(start, start);
+        for (int head = 0; head < queue.size(); head++) {
+            int v = queue.get(head);
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                if (component[w] != component[start]) {
+                    continue;
+                }
+                if (w == start) {
+                    var path = new ArrayList<Integer>();
+                    path.add(start);
+                    for (int u = v; u != start; u = parent.get(u)) {
+                        path.add(u);
+                    }
+                    path.add(start);
+                    var result = new int[path.size()];
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = path.get(result.length - 1 - i);
+                    }
+                    return result;
+                }
+                if (!parent.containsKey(w)) {
+                    parent.put(w, v);
+                    queue.add(w);
+                }
+            }
+        }
+        throw new IllegalStateException("Node " + start + " is not part of a cycle");
+    }
+
+    private static String describe(SliceGraph graph, int[] path, int componentSize) {
+        var sb = new StringBuilder("Cycle detected: ");
+        for (int i = 0; i < path.length; i++) {
+            sb.append(i == 0 ? "" : " -> ").append("Slice ").append(graph.names[path[i]]);
+        }
+        if (componentSize > path.length - 1) {
+            sb.append(" (one of the cycles between %d slices)".formatted(componentSize));
+        }
+        for (int i = 0; i + 1 < path.length; i++) {
+            sb.append(System.lineSeparator()).append("  ").append(i + 1).append(". Dependencies of Slice ").append(graph.names[path[i]]);
+            for (var dependency : graph.examples(path[i], path[i + 1])) {
+                sb.append(System.lineSeparator()).append("    - ").append(dependency.getDescription());
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The slices as nodes, sorted by name, and their dependencies as edges in compressed sparse row format.
+     */
+    private static final class SliceGraph {
+
+        private final String[] names;
+        private final List<List<JavaClass>> classes;
+        private final Map<JavaClass, Integer> sliceOfClass;
+        private final int[] offsets;
+        private final int[] targets;
+
+        private SliceGraph(String[] names, List<List<JavaClass>> classes, Map<JavaClass, Integer> sliceOfClass,
+                int[] offsets, int[] targets) {
+            this.names = names;
+            this.classes = classes;
+            this.sliceOfClass = sliceOfClass;
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        static SliceGraph of(PackageMatcher matcher, Collection<JavaClass> allClasses) {
+            var nameOfPackage = new HashMap<String, String>();
+            var sliceNames = new TreeSet<String>();
+            for (var javaClass : allClasses) {
+                var name = nameOfPackage.computeIfAbsent(javaClass.getPackageName(), p -> sliceName(matcher, p));
+                if (!name.isEmpty()) {
+                    sliceNames.add(name);
+                }
+            }
+            var names = sliceNames.toArray(new String[0]);
+            var idOfName = new HashMap<String, Integer>();
+            var classes = new ArrayList<List<JavaClass>>(names.length);
+            for (int i = 0; i < names.length; i++) {
+                idOfName.put(names[i], i);
+                classes.add(new ArrayList<>());
+            }
+            var sliceOfClass = new IdentityHashMap<JavaClass, Integer>();
+            for (var javaClass : allClasses) {
+                var id = idOfName.get(nameOfPackage.get(javaClass.getPackageName()));
+                if (id != null) {
+                    sliceOfClass.put(javaClass, id);
+                    classes.get(id).add(javaClass);
+                }
+            }
+
+            // all edges as (source << 32 | target), sorted and deduplicated
+            var edges = new long[64];
+            var count = 0;
+            for (var entry : sliceOfClass.entrySet()) {
+                int source = entry.getValue();
+                for (var dependency : entry.getKey().getDirectDependenciesFromSelf()) {
+                    var target = sliceOfClass.get(dependency.getTargetClass());
+                    if (target != null && target != source) {
+                        if (count == edges.length) {
+                            edges = Arrays.copyOf(edges, count * 2);
+                        }
+                        edges[count++] = ((long) source << 32) | target;
+                    }
+                }
+            }
+            Arrays.sort(edges, 0, count);
+            var offsets = new int[names.length + 1];
+            var targets = new int[count];
+            var unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || edges[i] != edges[i - 1]) {
+                    offsets[(int) (edges[i] >>> 32) + 1]++;
+                    targets[unique++] = (int) edges[i];
+                }
+            }
+            for (int i = 0; i < names.length; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            return new SliceGraph(names, classes, sliceOfClass, offsets, Arrays.copyOf(targets, unique));
+        }
+
+        private static String sliceName(PackageMatcher matcher, String packageName) {
+            return matcher.match(packageName).map(r -> {
+                var sb = new StringBuilder();
+                for (int i = 1; i <= r.getNumberOfGroups(); i++) {
+                    sb.append(i == 1 ? "" : " - ").append(r.getGroup(i));
+                }
+                return sb.toString();
+            }).orElse("");
+        }
+
+        int size() {
+            return names.length;
+        }
+
+        List<JavaClass> classesOf(int slice) {
+            return classes.get(slice);
+        }
+
+        List<Dependency> examples(int source, int target) {
+            var result = new ArrayList<Dependency>();
+            for (var javaClass : classes.get(source)) {
+                for (var dependency : javaClass.getDirectDependenciesFromSelf()) {
+                    var slice = sliceOfClass.get(dependency.getTargetClass());
+                    if (slice != null && slice == target) {
+                        result.add(dependency);
+                        if (result.size() == MAX_EXAMPLES_PER_EDGE) {
+                            return result;
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
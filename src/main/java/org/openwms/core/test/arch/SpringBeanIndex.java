@@ -0,0 +1,107 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+
+/**
+ * A SpringBeanIndex classifies each imported class once into the kind of Spring Bean it is.
+ *
+ * The classification is a bit set of {@link #COMPONENT}, {@link #CONTROLLER} and {@link #MAPPER_IMPLEMENTATION} and is kept
+ * in an {@link ImportCache} as long as the class is referenced, so that predicates evaluated by several rules on the same
+ * class are simple lookups and the import can be collected once the rules are evaluated.
+ *
+ * @author Heiko Scherrer
+ */
+final class SpringBeanIndex {
+
+    /** Annotated with one of the Spring stereotype annotations except the controller ones. */
+    static final int COMPONENT = 1;
+    /** Annotated with one of the controller annotations. */
+    static final int CONTROLLER = 1 << 1;
+    /** Implements a MapStruct mapper, that is a generated bean. */
+    static final int MAPPER_IMPLEMENTATION = 1 << 2;
+
+    private static final String TX_SERVICE = "org.ameba.annotation.TxService";
+    private static final String SERVICE = "org.springframework.stereotype.Service";
+    private static final String COMPONENT_ANNOTATION = "org.springframework.stereotype.Component";
+    private static final String REPOSITORY = "org.springframework.stereotype.Repository";
+    private static final String REST_CONTROLLER = "org.springframework.web.bind.annotation.RestController";
+    private static final String MEASURED_REST_CONTROLLER = "org.ameba.http.MeasuredRestController";
+    private static final String MAPPER = "org.mapstruct.Mapper";
+    private static final ImportCache<JavaClass, Integer> KINDS = new ImportCache<>(SpringBeanIndex::classify);
+
+    private SpringBeanIndex() {}
+
+    /**
+     * Returns the classification of the given class, computed on first access.
+     *
+     * @param javaClass The class
+     * @return The bit set of kinds, {@literal 0} if the class is no Spring Bean
+     */
+    static int kindOf(JavaClass javaClass) {
+        return KINDS.get(javaClass);
+    }
+
+    private static int classify(JavaClass javaClass) {
+        var kind = 0;
+        for (var annotation : javaClass.getAnnotations()) {
+            switch (annotation.getRawType().getName()) {
+                case TX_SERVICE, SERVICE, COMPONENT_ANNOTATION, REPOSITORY -> kind |= COMPONENT;
+                case REST_CONTROLLER, MEASURED_REST_CONTROLLER -> kind |= CONTROLLER;
+                default -> { }
+            }
+        }
+        if (kind != 0 && isMapperImpl(javaClass)) {
+            kind |= MAPPER_IMPLEMENTATION;
+        }
+        return kind;
+    }
+
+    /**
+     * Determines whether the given Java class is an implementation of a mapper interface
+     * annotated with "org.mapstruct.Mapper". The check includes both superclasses and interfaces.
+     *
+     * @param input the Java class to check for the mapper implementation
+     * @return true if the class or any of its superclasses or implemented interfaces
+     *         are annotated with "org.mapstruct.Mapper", false otherwise
+     */
+    private static boolean isMapperImpl(JavaClass input) {
+        var superclass = input.getSuperclass();
+        if (superclass.isPresent()) {
+            for (var type : superclass.get().getAllInvolvedRawTypes()) {
+                if (type.isAnnotatedWith(MAPPER)) {
+                    return true;
+                }
+            }
+            for (var type : input.getAllRawSuperclasses()) {
+                if (anyAnnotatedWithMapper(type.getRawInterfaces())) {
+                    return true;
+                }
+            }
+        }
+        return anyAnnotatedWithMapper(input.getRawInterfaces());
+    }
+
+    private static boolean anyAnnotatedWithMapper(Iterable<JavaClass> types) {
+        for (var type : types) {
+            if (type.isAnnotatedWith(MAPPER)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
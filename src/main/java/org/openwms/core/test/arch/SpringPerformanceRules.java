@@ -0,0 +1,217 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.CacheMode;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import org.springframework.scheduling.annotation.Async;
+
+import java.util.regex.Pattern;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.openwms.core.test.arch.SpringPredicates.areSingletonBeans;
+import static org.openwms.core.test.arch.SpringPredicates.areSpringBeans;
+
+/**
+ * A SpringPerformanceRules class defines rules that detect throughput hazards in the code of Spring managed components.
+ *
+ * @author Heiko Scherrer
+ */
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
+        ImportOption.DoNotIncludeTests.class,
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
+})
+public final class SpringPerformanceRules {
+
+    private static final String OBJECT_MAPPER = "com.fasterxml.jackson.databind.ObjectMapper";
+    private static final String LOGGER = "org.slf4j.Logger";
+
+    private SpringPerformanceRules() {}
+
+    /**
+     * Predicate that selects classes that are annotated with @Async, have an @Async method or use reactive types in their
+     * method signatures.
+     */
+    static final DescribedPredicate<JavaClass> areAsyncOrReactive = new DescribedPredicate<>("are @Async or reactive") {
+        @Override
+        public boolean test(JavaClass input) {
+            if (input.isAnnotatedWith(Async.class)) {
+                return true;
+            }
+            for (var method : input.getMethods()) {
+                if (method.isAnnotatedWith(Async.class) || isReactive(method.getRawReturnType())) {
+                    return true;
+                }
+                for (var parameterType : method.getRawParameterTypes()) {
+                    if (isReactive(parameterType)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean isReactive(JavaClass type) {
+            return type.getPackageName().startsWith("reactor.core.publisher") || type.isAssignableTo("org.reactivestreams.Publisher");
+        }
+    };
+
+    /**
+     * Ensures that singleton Spring Beans do not declare synchronized methods.
+     *
+     * A singleton bean is shared by all request threads, so a synchronized method serializes all requests that go through it.
+     */
+    @ArchTest
+    public static final ArchRule noSynchronizedMethodsInSingletonBeans = ScopedArchRule.classLocal(classes()
+            .that(areSingletonBeans)
+            .should(new ArchCondition<>("not declare synchronized methods") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var method : item.getMethods()) {
+                        if (method.getModifiers().contains(JavaModifier.SYNCHRONIZED)) {
+                            events.add(SimpleConditionEvent.violated(method, "Singleton bean method %s is synchronized and serializes all callers %s"
+                                    .formatted(method.getFullName(), method.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that Spring Beans do not call Thread.sleep, that blocks a request or worker thread doing nothing.
+     */
+    @ArchTest
+    public static final ArchRule noThreadSleepInBeans = ScopedArchRule.classLocal(classes()
+            .that(areSpringBeans)
+            .should(new ArchCondition<>("not call Thread.sleep") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var call : item.getMethodCallsFromSelf()) {
+                        if (BlockingCalls.isThreadSleep(call)) {
+                            events.add(SimpleConditionEvent.violated(call, "%s calls %s"
+                                    .formatted(call.getOrigin().getFullName(), BlockingCalls.describe(call))));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that Spring Beans that are @Async or use reactive types do not call blocking JDBC or the RestTemplate.
+     *
+     * Blocking calls exhaust the small thread pools of async executors and reactive schedulers.
+     */
+    @ArchTest
+    public static final ArchRule noBlockingCallsInAsyncOrReactiveBeans = ScopedArchRule.classLocal(classes()
+            .that(areSpringBeans)
+            .and(areAsyncOrReactive)
+            .should(new ArchCondition<>("not call blocking JDBC or HTTP clients") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var access : item.getAccessesFromSelf()) {
+                        if (BlockingCalls.isJdbc(access) || BlockingCalls.isBlockingHttp(access)) {
+                            events.add(SimpleConditionEvent.violated(access, "%s blocks on %s"
+                                    .formatted(access.getOrigin().getFullName(), BlockingCalls.describe(access))));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that Spring Beans do not create an ObjectMapper or compile a Pattern in a method body.
+     *
+     * Both are expensive to create and thread-safe, so they belong into a static or an injected field.
+     */
+    @ArchTest
+    public static final ArchRule noExpensiveObjectsCreatedInMethods = ScopedArchRule.classLocal(classes()
+            .that(areSpringBeans)
+            .should(new ArchCondition<>("not create an ObjectMapper or compile a Pattern in methods") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var method : item.getMethods()) {
+                        for (var call : method.getConstructorCallsFromSelf()) {
+                            if (call.getTargetOwner().isAssignableTo(OBJECT_MAPPER)) {
+                                events.add(SimpleConditionEvent.violated(call, "%s creates a new %s, use a shared instance %s"
+                                        .formatted(method.getFullName(), call.getTargetOwner().getSimpleName(), call.getSourceCodeLocation())));
+                            }
+                        }
+                        for (var call : method.getMethodCallsFromSelf()) {
+                            if ("compile".equals(call.getName()) && call.getTargetOwner().isEquivalentTo(Pattern.class)) {
+                                events.add(SimpleConditionEvent.violated(call, "%s compiles a Pattern on each call, use a static final field %s"
+                                        .formatted(method.getFullName(), call.getSourceCodeLocation())));
+                            }
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that Spring Beans do not format log messages with String.format for debug, trace or info logging without a
+     * guard like {@literal LOGGER.isDebugEnabled()}.
+     *
+     * The message is formatted even if the level is disabled. Use the placeholders of SLF4J instead. As the bytecode does not
+     * tell which argument belongs to which call, a method is reported if it formats a String and logs on one of these levels
+     * without checking any level.
+     */
+    @ArchTest
+    public static final ArchRule noUnguardedFormattingInLoggerCalls = ScopedArchRule.classLocal(classes()
+            .that(areSpringBeans)
+            .should(new ArchCondition<>("not format log messages without a level guard") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var method : item.getMethods()) {
+                        checkUnguardedFormatting(method, events);
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    private static void checkUnguardedFormatting(JavaMethod method, ConditionEvents events) {
+        var formatting = false;
+        var logging = false;
+        var guarded = false;
+        String location = null;
+        for (var call : method.getMethodCallsFromSelf()) {
+            var owner = call.getTargetOwner();
+            var name = call.getName();
+            if (owner.isEquivalentTo(String.class) && ("format".equals(name) || "formatted".equals(name))) {
+                formatting = true;
+                location = location == null ? call.getSourceCodeLocation().toString() : location;
+            } else if (owner.isAssignableTo(LOGGER)) {
+                logging |= "debug".equals(name) || "trace".equals(name) || "info".equals(name);
+                guarded |= name.startsWith("is") && name.endsWith("Enabled");
+            }
+        }
+        if (formatting && logging && !guarded) {
+            events.add(SimpleConditionEvent.violated(method, "%s formats a log message eagerly, use SLF4J placeholders or a level guard %s"
+                    .formatted(method.getFullName(), location)));
+        }
+    }
+}
@@ -17,12 +17,7 @@ package org.openwms.core.test.arch;
 
 import com.tngtech.archunit.base.DescribedPredicate;
 import com.tngtech.archunit.core.domain.JavaClass;
-import org.ameba.annotation.TxService;
-import org.ameba.http.MeasuredRestController;
-import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Repository;
-import org.springframework.stereotype.Service;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.context.annotation.Scope;
 
 /**
  * A SpringPredicates defines predicated that can be used in rule definitions.
@@ -41,19 +36,15 @@ public final class SpringPredicates {
      * implementation. It specifically excludes classes annotated with controller-related annotations
      * such as @RestController or @MeasuredRestController.
      *
-     * The predicate is mainly used in ArchUnit tests to enforce architectural rules on the Spring Beans.
+     * The predicate is mainly used in ArchUnit tests to enforce architectural rules on the Spring Beans. The classification
+     * of each class is computed once by the {@link SpringBeanIndex} and shared with {@link #areSpringBeans}.
      */
     public static final DescribedPredicate<JavaClass> areSpringBeansButNoControllers =
             new DescribedPredicate<>("are not generated SpringBeans"){
                 @Override
                 public boolean test(JavaClass input) {
-                    var result = (input.isAnnotatedWith(TxService.class) ||
-                            input.isAnnotatedWith(Service.class) ||
-                            input.isAnnotatedWith(Component.class) ||
-                            input.isAnnotatedWith(Repository.class)) &&
-                            !isMapperImpl(input)
-                            ;
-                    return result;
+                    var kind = SpringBeanIndex.kindOf(input);
+                    return (kind & SpringBeanIndex.COMPONENT) != 0 && (kind & SpringBeanIndex.MAPPER_IMPLEMENTATION) == 0;
                 }
             };
 
@@ -72,40 +63,51 @@ public final class SpringPredicates {
             new DescribedPredicate<>("are not generated SpringBeans"){
                 @Override
                 public boolean test(JavaClass input) {
-                    var result = (input.isAnnotatedWith(TxService.class) ||
-                            input.isAnnotatedWith(Service.class) ||
-                            input.isAnnotatedWith(Component.class) ||
-                            input.isAnnotatedWith(Repository.class) ||
-                            input.isAnnotatedWith(RestController.class) ||
-                            input.isAnnotatedWith(MeasuredRestController.class)) &&
-                            !isMapperImpl(input)
-                            ;
-                    return result;
+                    var kind = SpringBeanIndex.kindOf(input);
+                    return kind != 0 && (kind & SpringBeanIndex.MAPPER_IMPLEMENTATION) == 0;
                 }
             };
 
     /**
-     * Determines whether the given Java class is an implementation of a mapper interface
-     * annotated with "org.mapstruct.Mapper". The check includes both superclasses and interfaces.
+     * Predicate that selects classes which are REST controllers, annotated with @RestController or @MeasuredRestController.
+     */
+    public static final DescribedPredicate<JavaClass> areControllers =
+            new DescribedPredicate<>("are REST controllers"){
+                @Override
+                public boolean test(JavaClass input) {
+                    return (SpringBeanIndex.kindOf(input) & SpringBeanIndex.CONTROLLER) != 0;
+                }
+            };
+
+    /**
+     * Predicate that selects Spring Beans, as defined by {@link #areSpringBeans}, that live in the singleton scope.
      *
-     * @param input the Java class to check for the mapper implementation
-     * @return true if the class or any of its superclasses or implemented interfaces
-     *         are annotated with "org.mapstruct.Mapper", false otherwise
+     * A bean is not a singleton if it is annotated with @Scope and a scope other than singleton, or with an annotation that
+     * is itself annotated with @Scope, like @RequestScope. Singleton beans are shared by all request threads.
      */
-    private static boolean isMapperImpl(JavaClass input) {
-        boolean result = false;
-        if (input.getSuperclass().isPresent()) {
-            result = input.getSuperclass().get().getAllInvolvedRawTypes().stream().anyMatch(i -> i.isAnnotatedWith("org.mapstruct.Mapper"));
-            if (!result) {
-                result = input.getAllRawSuperclasses().stream()
-                        .flatMap(d -> d.getRawInterfaces().stream())
-                        .anyMatch(i -> i.isAnnotatedWith("org.mapstruct.Mapper"));
+    public static final DescribedPredicate<JavaClass> areSingletonBeans =
+            new DescribedPredicate<>("are singleton SpringBeans"){
+                @Override
+                public boolean test(JavaClass input) {
+                    return areSpringBeans.test(input) && isSingleton(input);
+                }
+            };
+
+    private static boolean isSingleton(JavaClass input) {
+        for (var annotation : input.getAnnotations()) {
+            var type = annotation.getRawType();
+            if (type.isEquivalentTo(Scope.class)) {
+                var scope = annotation.tryGetExplicitlyDeclaredProperty("value")
+                        .or(() -> annotation.tryGetExplicitlyDeclaredProperty("scopeName"))
+                        .map(String::valueOf)
+                        .orElse("");
+                if (!scope.isEmpty() && !"singleton".equals(scope)) {
+                    return false;
+                }
+            } else if (type.isAnnotatedWith(Scope.class)) {
+                return false;
             }
         }
-        if (!result) {
-            result = input.getRawInterfaces().stream()
-                    .anyMatch(i -> i.isAnnotatedWith("org.mapstruct.Mapper"));
-        }
-        return result;
+        return true;
     }
 }
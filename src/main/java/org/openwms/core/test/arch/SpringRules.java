@@ -32,9 +32,11 @@ import static org.openwms.core.test.arch.SpringPredicates.areSpringBeansButNoCon
  *
  * @author Heiko Scherrer
  */
-@AnalyzeClasses(packages = "org.openwms", cacheMode = CacheMode.PER_CLASS, importOptions = {
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
         ImportOption.DoNotIncludeTests.class,
-        ImportOption.DoNotIncludeJars.class
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
 })
 public final class SpringRules {
 
@@ -52,18 +54,18 @@ public final class SpringRules {
      * The objective is to ensure that such classes are either package-private or protected.
      */
     @ArchTest
-    public static final ArchRule springBeanImplementationsMustBeRestrictedInVisibility = classes()
+    public static final ArchRule springBeanImplementationsMustBeRestrictedInVisibility = ScopedArchRule.classLocal(classes()
             .that(areSpringBeansButNoControllers)
             .and().areNotAnnotations() // because the OSIPComponent annotation has a conditional (Spring)
             .and().areNotAnnotatedWith(Public.class)
             .should().bePackagePrivate()
-            .orShould().beProtected();
+            .orShould().beProtected());
 
     /**
      * @see {@link com.tngtech.archunit.library.GeneralCodingRules#NO_CLASSES_SHOULD_USE_FIELD_INJECTION}
      */
     @ArchTest
-    public static final ArchRule noClassesShouldUseFieldInjection = NO_CLASSES_SHOULD_USE_FIELD_INJECTION;
+    public static final ArchRule noClassesShouldUseFieldInjection = ScopedArchRule.classLocal(NO_CLASSES_SHOULD_USE_FIELD_INJECTION);
 
     /**
      * Ensure that Spring Configuration classes follow a common naming pattern and end with {@literal Configuration}.
@@ -73,10 +75,10 @@ public final class SpringRules {
      * - Are not annotated with @Public.
      */
     @ArchTest
-    public final ArchRule configurationsShouldBeNamedConfiguration = classes()
+    public final ArchRule configurationsShouldBeNamedConfiguration = ScopedArchRule.classLocal(classes()
             .that()
             .areAnnotatedWith(Configuration.class)
             .and().areNotAnnotatedWith(Public.class)
             .should().haveNameMatching(".*Configuration")
-            .allowEmptyShould(true);
+            .allowEmptyShould(true));
 }
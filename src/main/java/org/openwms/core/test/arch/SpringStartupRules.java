@@ -0,0 +1,253 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaCall;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.CacheMode;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScans;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.openwms.core.test.arch.AnnotationIndex.classesAnnotatedWith;
+import static org.openwms.core.test.arch.SpringPredicates.areSpringBeans;
+
+/**
+ * A SpringStartupRules class defines rules that detect code that slows down the start of the Spring application context.
+ *
+ * @author Heiko Scherrer
+ */
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
+        ImportOption.DoNotIncludeTests.class,
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
+})
+public final class SpringStartupRules {
+
+    /** Minimum number of segments of a package that is scanned for components. */
+    public static final String MIN_SCAN_DEPTH_KEY = "startup.minScanDepth";
+    private static final List<String> SCAN_PACKAGES = List.of("value", "basePackages");
+
+    private SpringStartupRules() {}
+
+    /**
+     * Ensures that @ComponentScan and @SpringBootApplication do not scan broad packages like {@literal org.openwms}.
+     *
+     * The scan visits every class file below the base packages, including those of all libraries sharing the package. The
+     * base packages are the explicitly declared ones or the package of the annotated class. They must have at least
+     * {@literal startup.minScanDepth} segments, 3 by default, like {@literal org.openwms.tms}.
+     */
+    @ArchTest
+    public static final ArchRule componentScansMustNotBeTooBroad = ScopedArchRule.classLocal(classes()
+            .that()
+            .areAnnotatedWith(ComponentScan.class).or()
+            .areAnnotatedWith(ComponentScans.class).or()
+            .areAnnotatedWith(SpringBootApplication.class)
+            .should(new ArchCondition<>("not scan broad packages for components") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    var minDepth = ArchSettings.getInt(MIN_SCAN_DEPTH_KEY, 3);
+                    for (var basePackage : basePackagesOf(item)) {
+                        if (depthOf(basePackage) < minDepth) {
+                            events.add(SimpleConditionEvent.violated(item, "%s scans the package '%s' with less than %d segments for components %s"
+                                    .formatted(item.getName(), basePackage, minDepth, item.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true), classesAnnotatedWith(ComponentScan.class, ComponentScans.class, SpringBootApplication.class));
+
+    /**
+     * Ensures that @Configuration classes declare {@literal proxyBeanMethods = false}.
+     *
+     * Otherwise each configuration class is subclassed with CGLIB at startup, to intercept calls between its @Bean methods.
+     * Inject other beans as parameters of the @Bean methods instead of calling these methods.
+     */
+    @ArchTest
+    public static final ArchRule configurationsShouldNotProxyBeanMethods = ScopedArchRule.classLocal(classes()
+            .that()
+            .areAnnotatedWith(Configuration.class).or()
+            .areAnnotatedWith(SpringBootConfiguration.class).or()
+            .areAnnotatedWith(SpringBootApplication.class)
+            .should(new ArchCondition<>("declare proxyBeanMethods = false") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var annotation : item.getAnnotations()) {
+                        if (isConfigurationAnnotation(annotation) && !Boolean.FALSE.equals(annotation.tryGetExplicitlyDeclaredProperty("proxyBeanMethods").orElse(null))) {
+                            events.add(SimpleConditionEvent.violated(item, "%s is annotated with @%s without proxyBeanMethods = false %s"
+                                    .formatted(item.getName(), annotation.getRawType().getSimpleName(), item.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true), classesAnnotatedWith(Configuration.class, SpringBootConfiguration.class, SpringBootApplication.class));
+
+    /**
+     * Ensures that Spring Beans and @Configuration classes do not block in their constructors, @PostConstruct methods or
+     * {@literal afterPropertiesSet}.
+     *
+     * These run while the application context is refreshed, one bean after the other. Reported are blocking I/O, sleeping,
+     * waiting for other threads, loading classpath resources and starting processes, also in private methods of the class
+     * called from there. Beans annotated with @Lazy are not initialized at startup and not checked.
+     */
+    @ArchTest
+    public static final ArchRule noHeavyWorkInBeanInitialization = ScopedArchRule.classLocal(classes()
+            .that(areSpringBeans).or()
+            .areAnnotatedWith(Configuration.class)
+            .and().areNotAnnotatedWith(Lazy.class)
+            .should(new ArchCondition<>("not block in constructors or initialization methods") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var initializer : initializersOf(item)) {
+                        for (var call : heavyCallsOf(item, initializer)) {
+                            events.add(SimpleConditionEvent.violated(call, "%s slows down the startup, it calls %s"
+                                    .formatted(initializer.getFullName(), BlockingCalls.describe(call))));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that static initializers do not block.
+     *
+     * A static initializer runs when the class is loaded, for beans while the application context is refreshed, and holds the
+     * class initialization lock meanwhile. Reported are the same calls as by {@link #noHeavyWorkInBeanInitialization}.
+     */
+    @ArchTest
+    public static final ArchRule noExpensiveStaticInitializers = ScopedArchRule.classLocal(classes()
+            .should(new ArchCondition<>("not block in static initializers") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    item.getStaticInitializer().ifPresent(initializer -> {
+                        for (var call : heavyCallsOf(item, initializer)) {
+                            events.add(SimpleConditionEvent.violated(call, "Static initializer of %s calls %s"
+                                    .formatted(item.getName(), BlockingCalls.describe(call))));
+                        }
+                    });
+                }
+            })
+            .allowEmptyShould(true));
+
+    private static List<String> basePackagesOf(JavaClass item) {
+        var result = new ArrayList<String>();
+        for (var annotation : item.getAnnotations()) {
+            var type = annotation.getRawType();
+            if (type.isEquivalentTo(ComponentScan.class)) {
+                addBasePackages(item, annotation, SCAN_PACKAGES, "basePackageClasses", result);
+            } else if (type.isEquivalentTo(SpringBootApplication.class)) {
+                addBasePackages(item, annotation, List.of("scanBasePackages"), "scanBasePackageClasses", result);
+            } else if (type.isEquivalentTo(ComponentScans.class)) {
+                annotation.tryGetExplicitlyDeclaredProperty("value").ifPresent(value -> {
+                    for (var scan : (JavaAnnotation<?>[]) value) {
+                        addBasePackages(item, scan, SCAN_PACKAGES, "basePackageClasses", result);
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    private static void addBasePackages(JavaClass item, JavaAnnotation<?> annotation, List<String> packageProperties, String packageClasses, List<String> result) {
+        var size = result.size();
+        for (var property : packageProperties) {
+            annotation.tryGetExplicitlyDeclaredProperty(property).ifPresent(names -> {
+                for (var name : (String[]) names) {
+                    for (var basePackage : name.split("[,; \t\n]")) {
+                        if (!basePackage.isBlank()) {
+                            result.add(basePackage.trim());
+                        }
+                    }
+                }
+            });
+        }
+        annotation.tryGetExplicitlyDeclaredProperty(packageClasses).ifPresent(types -> {
+            for (var type : (JavaClass[]) types) {
+                result.add(type.getPackageName());
+            }
+        });
+        if (result.size() == size) {
+            result.add(item.getPackageName());
+        }
+    }
+
+    private static int depthOf(String basePackage) {
+        var depth = 0;
+        for (var segment : basePackage.split("\\.")) {
+            if (segment.isEmpty() || segment.contains("*") || segment.contains("$")) {
+                break;
+            }
+            depth++;
+        }
+        return depth;
+    }
+
+    private static boolean isConfigurationAnnotation(JavaAnnotation<?> annotation) {
+        var type = annotation.getRawType();
+        return type.isEquivalentTo(Configuration.class) || type.isEquivalentTo(SpringBootConfiguration.class) || type.isEquivalentTo(SpringBootApplication.class);
+    }
+
+    private static List<JavaCodeUnit> initializersOf(JavaClass item) {
+        var result = new ArrayList<JavaCodeUnit>(item.getConstructors());
+        for (var method : item.getMethods()) {
+            if (method.isAnnotatedWith(PostConstruct.class)
+                    || "afterPropertiesSet".equals(method.getName()) && method.getRawParameterTypes().isEmpty() && item.isAssignableTo(InitializingBean.class)) {
+                result.add(method);
+            }
+        }
+        return result;
+    }
+
+    private static List<JavaCall<?>> heavyCallsOf(JavaClass item, JavaCodeUnit codeUnit) {
+        var result = new ArrayList<JavaCall<?>>();
+        collectHeavyCalls(item, codeUnit, new HashSet<>(), result);
+        return result;
+    }
+
+    private static void collectHeavyCalls(JavaClass item, JavaCodeUnit codeUnit, Set<JavaCodeUnit> visited, List<JavaCall<?>> result) {
+        if (!visited.add(codeUnit)) {
+            return;
+        }
+        for (var call : codeUnit.getCallsFromSelf()) {
+            if (BlockingCalls.isBlockingIo(call) || BlockingCalls.isThreadSleep(call) || BlockingCalls.isWaiting(call) || BlockingCalls.isResourceLoading(call)) {
+                result.add(call);
+            } else if (call.getTargetOwner().equals(item)) {
+                call.getTarget().resolveMember().ifPresent(target -> collectHeavyCalls(item, target, visited, result));
+            }
+        }
+    }
+}
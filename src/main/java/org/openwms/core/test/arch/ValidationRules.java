@@ -29,6 +29,7 @@ import org.springframework.validation.annotation.Validated;
 import java.util.Collection;
 
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.openwms.core.test.arch.AnnotationIndex.classesWithParametersAnnotatedIn;
 import static org.openwms.core.test.arch.SpringPredicates.areSpringBeans;
 
 /**
@@ -36,9 +37,11 @@ import static org.openwms.core.test.arch.SpringPredicates.areSpringBeans;
  *
  * @author Heiko Scherrer
  */
-@AnalyzeClasses(packages = "org.openwms", cacheMode = CacheMode.PER_CLASS, importOptions = {
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
         ImportOption.DoNotIncludeTests.class,
-        ImportOption.DoNotIncludeJars.class
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
 })
 public final class ValidationRules {
 
@@ -58,7 +61,7 @@ public final class ValidationRules {
      * constraints defined by the JSR-303 annotations are enforced by the Spring Framework.
      */
     @ArchTest
-    public static final ArchRule useValidatedWhenRequired = classes()
+    public static final ArchRule useValidatedWhenRequired = ScopedArchRule.classLocal(classes()
             .that(areSpringBeans)
             .and().containAnyMethodsThat(new DescribedPredicate<>("have a JSR303 annotation") {
                 @Override
@@ -72,5 +75,5 @@ public final class ValidationRules {
             })
             .should().beAnnotatedWith(Validated.class)
             .orShould().beMetaAnnotatedWith(Validated.class)
-            .allowEmptyShould(true);
+            .allowEmptyShould(true), classesWithParametersAnnotatedIn("jakarta.validation"));
 }
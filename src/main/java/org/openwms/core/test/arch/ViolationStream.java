@@ -0,0 +1,259 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.base.DescribedPredicate;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.EvaluationResult;
+import com.tngtech.archunit.lang.Priority;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A ViolationStream evaluates a class-local rule in chunks of classes and writes each violation to a JSONL file as soon as
+ * the chunk is evaluated.
+ *
+ * Only the number of violations and the first {@value #DEFAULT_SAMPLE} of them, configurable with {@value #SAMPLE_KEY},
+ * are kept in memory and reported in the {@link EvaluationResult}, so that a rule with tens of thousands of violations
+ * neither holds all events nor builds one giant failure message. Each line of the file is an object with the
+ * {@literal rule} description and the {@literal violation} message. Streaming is enabled with {@value #ENABLED_KEY}.
+ *
+ * @author Heiko Scherrer
+ */
+public final class ViolationStream {
+
+    /** The setting to enable streaming of violations. */
+    public static final String ENABLED_KEY = "violations.stream";
+    /** The setting with the directory the JSONL files are written to. */
+    public static final String DIR_KEY = "violations.dir";
+    /** The default directory of the JSONL files. */
+    public static final String DEFAULT_DIR = "target/archunit-openwms/violations";
+    /** The setting with the number of violations kept in memory and reported per rule. */
+    public static final String SAMPLE_KEY = "violations.sample";
+    /** The default number of violations reported per rule. */
+    public static final int DEFAULT_SAMPLE = 100;
+    /** The setting with the number of classes evaluated at once. */
+    public static final String CHUNK_SIZE_KEY = "violations.chunkSize";
+    /** The default number of classes evaluated at once. */
+    public static final int DEFAULT_CHUNK_SIZE = 2000;
+    private static final int MAX_FILE_NAME = 80;
+    private static final String OMISSION_NOTE = "... %d more violations, all %d are written to %s";
+    private static final String VIOLATION_FIELD = "\",\"violation\":\"";
+
+    private ViolationStream() {}
+
+    /**
+     * Checks whether streaming of violations is enabled.
+     *
+     * @return {@literal true} if enabled
+     */
+    public static boolean isEnabled() {
+        return ArchSettings.getBoolean(ENABLED_KEY, false);
+    }
+
+    /**
+     * Returns the JSONL file the violations of the given rule are written to.
+     *
+     * @param rule The rule
+     * @return The file
+     */
+    public static Path fileOf(ArchRule rule) {
+        var description = rule.getDescription();
+        var name = new StringBuilder(MAX_FILE_NAME);
+        for (var i = 0; i < description.length() && name.length() < MAX_FILE_NAME; i++) {
+            var c = description.charAt(i);
+            name.append(Character.isLetterOrDigit(c) ? c : '_');
+        }
+        name.append('-').append(Integer.toHexString(description.hashCode())).append(".jsonl");
+        return Path.of(ArchSettings.get(DIR_KEY, DEFAULT_DIR), name.toString());
+    }
+
+    /**
+     * Evaluates the rule against the given classes chunk by chunk and streams the violations to {@link #fileOf(ArchRule)}.
+     *
+     * The rule must check each class on its own, otherwise the chunks would hide violations. If the rule does not allow an
+     * empty should, the evaluation fails only if no chunk had any class to check.
+     *
+     * @param rule The class-local rule
+     * @param classes The classes to evaluate
+     * @return The result with the sampled violations and the number of the ones omitted
+     * @throws UncheckedIOException If the file cannot be written
+     */
+    static EvaluationResult evaluate(ArchRule rule, JavaClasses classes) {
+        var file = fileOf(rule);
+        var sampleSize = ArchSettings.getInt(SAMPLE_KEY, DEFAULT_SAMPLE);
+        var sample = ConditionEvents.Factory.create();
+        var description = escape(rule.getDescription());
+        var violations = 0L;
+        var priority = Priority.MEDIUM;
+        var checked = false;
+        AssertionError emptyShould = null;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (var chunk : partition(classes, ArchSettings.getInt(CHUNK_SIZE_KEY, DEFAULT_CHUNK_SIZE))) {
+                    EvaluationResult result;
+                    try {
+                        result = rule.evaluate(chunk);
+                    } catch (AssertionError e) {
+                        emptyShould = emptyShould == null ? e : emptyShould;
+                        continue;
+                    }
+                    checked = true;
+                    priority = result.getPriority();
+                    for (var violation : result.getFailureReport().getDetails()) {
+                        writer.write("{\"rule\":\"%s%s%s\"}\n".formatted(description, VIOLATION_FIELD, escape(violation)));
+                        if (violations++ < sampleSize) {
+                            sample.add(SimpleConditionEvent.violated(violation, violation));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write violations to " + file, e);
+        }
+        if (!checked && emptyShould != null) {
+            throw emptyShould;
+        }
+        if (violations > sampleSize) {
+            var omitted = OMISSION_NOTE.formatted(violations - sampleSize, violations, file.toAbsolutePath());
+            sample.add(SimpleConditionEvent.violated(omitted, omitted));
+        }
+        return new EvaluationResult(rule, sample, priority);
+    }
+
+    /**
+     * Reads all violations of the given rule from {@link #fileOf(ArchRule)}, written by the last streamed evaluation.
+     *
+     * @param rule The rule
+     * @return The violation messages in the order they were written
+     * @throws UncheckedIOException If the file cannot be read
+     */
+    static List<String> violationsOf(ArchRule rule) {
+        var file = fileOf(rule);
+        var violations = new ArrayList<String>();
+        try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.forEach(line -> {
+                var start = line.indexOf(VIOLATION_FIELD);
+                if (start >= 0 && line.endsWith("\"}")) {
+                    violations.add(unescape(line.substring(start + VIOLATION_FIELD.length(), line.length() - 2)));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read violations from " + file, e);
+        }
+        return violations;
+    }
+
+    /**
+     * Checks whether the given violation is the note about the violations omitted from the sample.
+     *
+     * @param violation The violation message
+     * @return {@literal true} if it is the note
+     */
+    static boolean isOmissionNote(String violation) {
+        return violation.startsWith("... ") && violation.contains(" more violations, all ");
+    }
+
+    /**
+     * Splits the classes into chunks of the given size. The chunk of each class is determined in one pass. ArchUnit narrows
+     * classes only by filtering all of them, so the chunks are split off by halving: each class is filtered once per
+     * halving, {@literal O(n log(n / chunkSize))}, and not once per chunk.
+     */
+    private static List<JavaClasses> partition(JavaClasses classes, int chunkSize) {
+        if (classes.size() <= chunkSize) {
+            return List.of(classes);
+        }
+        var chunkOf = new HashMap<JavaClass, Integer>(classes.size() * 2);
+        var position = 0;
+        for (var javaClass : classes) {
+            chunkOf.put(javaClass, position++ / chunkSize);
+        }
+        var chunks = new ArrayList<JavaClasses>();
+        split(classes, chunkOf, 0, (position - 1) / chunkSize + 1, chunks);
+        return chunks;
+    }
+
+    private static void split(JavaClasses classes, Map<JavaClass, Integer> chunkOf, int from, int to, List<JavaClasses> chunks) {
+        if (to - from == 1) {
+            chunks.add(classes);
+            return;
+        }
+        var middle = (from + to) >>> 1;
+        split(classes.that(DescribedPredicate.describe("are in chunks %d to %d".formatted(from, middle - 1),
+                (JavaClass c) -> chunkOf.get(c) < middle)), chunkOf, from, middle, chunks);
+        split(classes.that(DescribedPredicate.describe("are in chunks %d to %d".formatted(middle, to - 1),
+                (JavaClass c) -> chunkOf.get(c) >= middle)), chunkOf, middle, to, chunks);
+    }
+
+    private static String unescape(String value) {
+        var result = new StringBuilder(value.length());
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                result.append(c);
+                continue;
+            }
+            var next = value.charAt(++i);
+            switch (next) {
+                case 'n' -> result.append('\n');
+                case 'r' -> result.append('\r');
+                case 't' -> result.append('\t');
+                case 'u' -> {
+                    result.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> result.append(next);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String escape(String value) {
+        var result = new StringBuilder(value.length() + 16);
+        for (var i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> result.append("\\\"");
+                case '\\' -> result.append("\\\\");
+                case '\n' -> result.append("\\n");
+                case '\r' -> result.append("\\r");
+                case '\t' -> result.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        result.append("\\u%04x".formatted((int) c));
+                    } else {
+                        result.append(c);
+                    }
+                }
+            }
+        }
+        return result.toString();
+    }
+}
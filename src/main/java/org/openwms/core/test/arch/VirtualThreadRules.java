@@ -0,0 +1,112 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaFieldAccess;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.CacheMode;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+
+import java.util.Set;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.openwms.core.test.arch.SpringPredicates.areSpringBeans;
+
+/**
+ * A VirtualThreadRules class defines rules that prepare Spring managed components for virtual threads.
+ *
+ * A virtual thread that blocks while it holds a monitor pins its carrier thread, and a {@link ThreadLocal} is copied for
+ * each of the many virtual threads. Each violation names the method, the call and the monitor, so the report serves as the
+ * migration worklist. With the {@value #FREEZE_KEY} setting the rules are frozen with the {@link BaselineArchRule}:
+ * existing violations are recorded in the baseline and only new ones fail.
+ *
+ * @author Heiko Scherrer
+ */
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
+        ImportOption.DoNotIncludeTests.class,
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
+})
+public final class VirtualThreadRules {
+
+    /** The setting to freeze existing violations of the virtual thread rules. */
+    public static final String FREEZE_KEY = "virtualthreads.freeze";
+
+    private VirtualThreadRules() {}
+
+    /**
+     * Ensures that Spring Beans do not block on file, stream or network I/O or JDBC in synchronized methods or blocks.
+     *
+     * Replace the monitor with a {@link java.util.concurrent.locks.ReentrantLock} or move the I/O out of the region.
+     */
+    @ArchTest
+    public static final ArchRule noBlockingIoWhileHoldingMonitors = worklist(classes()
+            .that(areSpringBeans)
+            .should(new ArchCondition<>("not block on I/O while holding a monitor") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var access : item.getAccessesFromSelf()) {
+                        if (!BlockingCalls.isBlockingIo(access)) {
+                            continue;
+                        }
+                        MonitorScanner.enclosingRegion(access).ifPresent(region -> events.add(SimpleConditionEvent.violated(access,
+                                "%s pins the carrier thread: calls %s inside %s(%s)".formatted(access.getOrigin().getFullName(),
+                                        BlockingCalls.describe(access), region.synchronizedMethod() ? "synchronized method " : "synchronized",
+                                        region.lock()))));
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that Spring Beans do not keep state in {@link ThreadLocal} fields.
+     *
+     * Each virtual thread gets its own copy, so per-request values are recreated on every request and expensive cached
+     * objects are never reused. Pass the value explicitly or use a scoped value instead.
+     */
+    @ArchTest
+    public static final ArchRule noThreadLocalsInBeans = worklist(classes()
+            .that(areSpringBeans)
+            .should(new ArchCondition<>("not declare ThreadLocal fields") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var field : item.getFields()) {
+                        if (field.getRawType().isAssignableTo(ThreadLocal.class)) {
+                            events.add(SimpleConditionEvent.violated(field, "Field %s is a ThreadLocal and accessed from %d code units %s"
+                                    .formatted(field.getFullName(), countAccessingCodeUnits(field.getAccessesToSelf()),
+                                            field.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true));
+
+    private static long countAccessingCodeUnits(Set<JavaFieldAccess> accesses) {
+        return accesses.stream().map(JavaFieldAccess::getOrigin).distinct().count();
+    }
+
+    private static ArchRule worklist(ArchRule rule) {
+        var scoped = ScopedArchRule.classLocal(rule);
+        return ArchSettings.getBoolean(FREEZE_KEY, false) ? BaselineArchRule.freeze(scoped) : scoped;
+    }
+}
@@ -32,18 +32,24 @@ import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.Table;
 import org.ameba.integration.jpa.ApplicationEntity;
 import org.ameba.integration.jpa.BaseEntity;
+import org.openwms.core.test.arch.ArchConstants;
+import org.openwms.core.test.arch.ScanScope;
+import org.openwms.core.test.arch.ScopedArchRule;
 
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
+import static org.openwms.core.test.arch.AnnotationIndex.classesAnnotatedWith;
 
 /**
  * A EntityClassRules defines rules for JPA types.
  *
  * @author Heiko Scherrer
  */
-@AnalyzeClasses(packages = "org.openwms", cacheMode = CacheMode.PER_CLASS, importOptions = {
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
         ImportOption.DoNotIncludeTests.class,
-        ImportOption.DoNotIncludeJars.class
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
 })
 public final class EntityClassRules {
 
@@ -55,7 +61,7 @@ public final class EntityClassRules {
      * This rule is applied to enforce that every JPA entity has a corresponding database table mapping.
      */
     @ArchTest
-    public static final ArchRule entitiesMustHaveTableAnnotation = classes()
+    public static final ArchRule entitiesMustHaveTableAnnotation = ScopedArchRule.classLocal(classes()
             .that()
             .doNotHaveModifier(JavaModifier.ABSTRACT)
             .and()
@@ -63,7 +69,7 @@ public final class EntityClassRules {
             .and()
             .areNotAnnotatedWith(DiscriminatorValue.class)
             .should().beAnnotatedWith(Table.class)
-            .allowEmptyShould(true);
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class));
 
     /**
      * ArchUnit rule that ensures no classes annotated with @Entity or
@@ -73,12 +79,12 @@ public final class EntityClassRules {
      * entity classes from being placed in certain packages.
      */
     @ArchTest
-    public static final ArchRule noEntityPackages = noClasses()
+    public static final ArchRule noEntityPackages = ScopedArchRule.classLocal(noClasses()
             .that()
             .areAnnotatedWith(Entity.class).or()
             .areAnnotatedWith(MappedSuperclass.class)
             .should().resideInAnyPackage("..entities..", "..entity..")
-            .allowEmptyShould(true);
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class, MappedSuperclass.class));
 
     /**
      * ArchUnit rule that ensures all classes annotated with @Entity or
@@ -89,14 +95,14 @@ public final class EntityClassRules {
      * that they inherit common behavior and properties from base classes.
      */
     @ArchTest
-    public static final ArchRule entitiesMustExtendBaseClasses = classes()
+    public static final ArchRule entitiesMustExtendBaseClasses = ScopedArchRule.classLocal(classes()
             .that()
             .areAnnotatedWith(Entity.class).or()
             .areAnnotatedWith(MappedSuperclass.class)
             .and().doNotHaveSimpleName("AuditableRevisionEntity")
             .should().beAssignableTo(ApplicationEntity.class)
             .orShould().beAssignableTo(BaseEntity.class)
-            .allowEmptyShould(true);
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class, MappedSuperclass.class));
 
     /**
      * ArchUnit rule that ensures no JPA entity classes annotated with @Entity,
@@ -107,13 +113,13 @@ public final class EntityClassRules {
      * specifications.
      */
     @ArchTest
-    public static final ArchRule entitiesMustNotUseLombok = noClasses()
+    public static final ArchRule entitiesMustNotUseLombok = ScopedArchRule.classLocal(noClasses()
             .that()
             .areAnnotatedWith(Entity.class).or()
             .areAnnotatedWith(MappedSuperclass.class).or()
             .areAnnotatedWith(Enumerated.class)
             .should().dependOnClassesThat().resideInAnyPackage("..lombok..")
-            .allowEmptyShould(true);
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class, MappedSuperclass.class, Enumerated.class));
 
     /**
      * ArchUnit rule that ensures no classes annotated with @Entity or
@@ -125,19 +131,19 @@ public final class EntityClassRules {
      * and avoiding potential issues with serialization mechanisms.
      */
     @ArchTest
-    static final ArchRule entitiesMustNotBeSerialized = noClasses().that()
+    static final ArchRule entitiesMustNotBeSerialized = ScopedArchRule.classLocal(noClasses().that()
             .areAnnotatedWith(Entity.class)
             .or()
             .areAnnotatedWith(MappedSuperclass.class)
             .should()
             .dependOnClassesThat().resideInAnyPackage("com.fasterxml.jackson..")
-            .allowEmptyShould(true);
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class, MappedSuperclass.class));
 
     /**
      * ArchUnit rule that ensures no classes annotated with @Entity or @MappedSuperclass override the equals/hashCode contract.
      */
     @ArchTest
-    static final ArchRule entitiesMustImplementEqualsAndHashCode = classes().that()
+    static final ArchRule entitiesMustImplementEqualsAndHashCode = ScopedArchRule.classLocal(classes().that()
             .areAnnotatedWith(Entity.class)
             .or()
             .areAnnotatedWith(MappedSuperclass.class)
@@ -157,5 +163,5 @@ public final class EntityClassRules {
                     }
                 }
             })
-            .allowEmptyShould(true);
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class, MappedSuperclass.class));
 }
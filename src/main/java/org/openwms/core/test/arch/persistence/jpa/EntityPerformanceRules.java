@@ -0,0 +1,180 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.persistence.jpa;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.junit.AnalyzeClasses;
+import com.tngtech.archunit.junit.ArchTest;
+import com.tngtech.archunit.junit.CacheMode;
+import com.tngtech.archunit.lang.ArchCondition;
+import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Fetch;
+import org.openwms.core.test.arch.ArchConstants;
+import org.openwms.core.test.arch.ScanScope;
+import org.openwms.core.test.arch.ScopedArchRule;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.openwms.core.test.arch.AnnotationIndex.classesAnnotatedWith;
+
+/**
+ * A EntityPerformanceRules defines rules that detect JPA mappings known to cause N+1 selects, huge eager object graphs or
+ * lost updates.
+ *
+ * @author Heiko Scherrer
+ */
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
+        ImportOption.DoNotIncludeTests.class,
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
+})
+public final class EntityPerformanceRules {
+
+    private EntityPerformanceRules() {}
+
+    /**
+     * ArchUnit rule that ensures no @OneToMany or @ManyToMany association of an entity is fetched eagerly.
+     *
+     * An eager collection is loaded with every instance of the owning entity, also when it is never used, and eager
+     * collections of the loaded children cascade into huge object graphs.
+     */
+    @ArchTest
+    public static final ArchRule toManyAssociationsMustNotBeEager = ScopedArchRule.classLocal(classes()
+            .that()
+            .areAnnotatedWith(Entity.class).or()
+            .areAnnotatedWith(MappedSuperclass.class).or()
+            .areAnnotatedWith(Embeddable.class)
+            .should(new ArchCondition<>("not fetch @OneToMany or @ManyToMany associations eagerly") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    for (var association : JpaAssociation.declaredIn(item)) {
+                        if (association.toMany() && association.eager() && !isElementCollection(association)) {
+                            events.add(SimpleConditionEvent.violated(item, "%s in %s is fetched eagerly, use FetchType.LAZY and an entity graph or join fetch where needed"
+                                    .formatted(association.describe(), item.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class, MappedSuperclass.class, Embeddable.class));
+
+    /**
+     * ArchUnit rule that ensures collection associations of entities are loaded in batches.
+     *
+     * A lazy collection without @BatchSize or @Fetch is loaded with one select per owning entity (N+1 selects). An entity that
+     * declares a @NamedEntityGraph is considered to fetch its collections explicitly.
+     */
+    @ArchTest
+    public static final ArchRule collectionAssociationsMustBeBatched = ScopedArchRule.classLocal(classes()
+            .that()
+            .areAnnotatedWith(Entity.class).or()
+            .areAnnotatedWith(MappedSuperclass.class)
+            .should(new ArchCondition<>("load collection associations with @BatchSize, @Fetch or an entity graph") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    if (item.isAnnotatedWith(NamedEntityGraph.class) || item.isAnnotatedWith(NamedEntityGraphs.class)) {
+                        return;
+                    }
+                    for (var association : JpaAssociation.declaredIn(item)) {
+                        if (association.toMany() && association.isLazy()
+                                && !association.isAnnotatedWith(BatchSize.class.getName())
+                                && !association.isAnnotatedWith(Fetch.class.getName())) {
+                            events.add(SimpleConditionEvent.violated(item, "%s in %s has neither @BatchSize nor @Fetch nor an entity graph and causes N+1 selects"
+                                    .formatted(association.describe(), item.getSourceCodeLocation())));
+                        }
+                    }
+                }
+            })
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class, MappedSuperclass.class));
+
+    /**
+     * ArchUnit rule that ensures the equals and hashCode methods of entities do not touch lazy associations.
+     *
+     * Accessing a lazy association in equals or hashCode initializes it, e.g. whenever the entity is put into a HashSet, and
+     * fails outside a transaction.
+     */
+    @ArchTest
+    public static final ArchRule equalsAndHashCodeMustNotTouchLazyAssociations = ScopedArchRule.classLocal(classes()
+            .that()
+            .areAnnotatedWith(Entity.class).or()
+            .areAnnotatedWith(MappedSuperclass.class)
+            .should(new ArchCondition<>("not access lazy associations in equals or hashCode") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    item.tryGetMethod("equals", Object.class).ifPresent(m -> checkLazyAccesses(item, m, events));
+                    item.tryGetMethod("hashCode").ifPresent(m -> checkLazyAccesses(item, m, events));
+                }
+            })
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class, MappedSuperclass.class));
+
+    /**
+     * ArchUnit rule that ensures all (not abstract) entities have a @Version attribute, declared in the entity or in one of
+     * its superclasses.
+     *
+     * Without optimistic locking concurrent updates of the same entity silently overwrite each other.
+     */
+    @ArchTest
+    public static final ArchRule entitiesMustHaveVersion = ScopedArchRule.classLocal(classes()
+            .that()
+            .doNotHaveModifier(JavaModifier.ABSTRACT)
+            .and()
+            .areAnnotatedWith(Entity.class)
+            .should(new ArchCondition<>("have a @Version attribute") {
+                @Override
+                public void check(JavaClass item, ConditionEvents events) {
+                    var versioned = item.getAllFields().stream().anyMatch(f -> f.isAnnotatedWith(Version.class))
+                            || item.getAllMethods().stream().anyMatch(m -> m.isAnnotatedWith(Version.class));
+                    if (!versioned) {
+                        events.add(SimpleConditionEvent.violated(item, "Entity %s has no @Version attribute for optimistic locking"
+                                .formatted(item.getName())));
+                    }
+                }
+            })
+            .allowEmptyShould(true), classesAnnotatedWith(Entity.class));
+
+    private static boolean isElementCollection(JpaAssociation association) {
+        return association.isAnnotatedWith(ElementCollection.class.getName());
+    }
+
+    private static void checkLazyAccesses(JavaClass item, JavaCodeUnit method, ConditionEvents events) {
+        for (var access : method.getFieldAccesses()) {
+            access.getTarget().resolveMember()
+                    .flatMap(JpaAssociation::ofProperty)
+                    .filter(JpaAssociation::isLazy)
+                    .ifPresent(a -> events.add(SimpleConditionEvent.violated(item, "%s accesses lazy association %s %s"
+                            .formatted(method.getFullName(), a.describe(), access.getSourceCodeLocation()))));
+        }
+        for (var call : method.getMethodCallsFromSelf()) {
+            call.getTarget().resolveMember()
+                    .flatMap(JpaAssociation::ofGetter)
+                    .filter(JpaAssociation::isLazy)
+                    .ifPresent(a -> events.add(SimpleConditionEvent.violated(item, "%s calls lazy association %s %s"
+                            .formatted(method.getFullName(), a.describe(), call.getSourceCodeLocation()))));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.persistence.jpa;
+
+import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaEnumConstant;
+import com.tngtech.archunit.core.domain.JavaField;
+import com.tngtech.archunit.core.domain.JavaMember;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A JpaAssociation is an association mapped on a field or a getter of an entity, with its effective fetch type.
+ *
+ * @param member The mapped field or getter
+ * @param annotation The mapping annotation
+ * @param toMany Whether the association is a collection
+ * @param eager Whether the association is fetched eagerly, explicitly or by the JPA default
+ * @author Heiko Scherrer
+ */
+record JpaAssociation(JavaMember member, JavaAnnotation<?> annotation, boolean toMany, boolean eager) {
+
+    private static final String ONE_TO_MANY = OneToMany.class.getName();
+    private static final String MANY_TO_MANY = ManyToMany.class.getName();
+    private static final String ELEMENT_COLLECTION = ElementCollection.class.getName();
+    private static final String MANY_TO_ONE = ManyToOne.class.getName();
+    private static final String ONE_TO_ONE = OneToOne.class.getName();
+
+    /**
+     * Returns all associations declared on the fields and methods of the given class.
+     *
+     * @param javaClass The entity class
+     * @return The associations
+     */
+    static List<JpaAssociation> declaredIn(JavaClass javaClass) {
+        var result = new ArrayList<JpaAssociation>();
+        for (var field : javaClass.getFields()) {
+            of(field).ifPresent(result::add);
+        }
+        for (var method : javaClass.getMethods()) {
+            of(method).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the association mapped on the given member.
+     *
+     * @param member The field or method
+     * @return The association, empty if the member is no association
+     */
+    static Optional<JpaAssociation> of(JavaMember member) {
+        for (JavaAnnotation<?> annotation : member.getAnnotations()) {
+            var type = annotation.getRawType().getName();
+            if (ONE_TO_MANY.equals(type) || MANY_TO_MANY.equals(type) || ELEMENT_COLLECTION.equals(type)) {
+                return Optional.of(new JpaAssociation(member, annotation, true, isFetch(annotation, "EAGER")));
+            }
+            if (MANY_TO_ONE.equals(type) || ONE_TO_ONE.equals(type)) {
+                return Optional.of(new JpaAssociation(member, annotation, false, !isFetch(annotation, "LAZY")));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the association mapped on the given field or on the getter of the property with the field's name.
+     *
+     * @param field The field
+     * @return The association, empty if the field is no association
+     */
+    static Optional<JpaAssociation> ofProperty(JavaField field) {
+        var result = of(field);
+        if (result.isEmpty()) {
+            var property = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+            result = field.getOwner().tryGetMethod("get" + property).flatMap(JpaAssociation::of);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the association mapped on the given getter or on the field of the getter's property.
+     *
+     * @param method The method
+     * @return The association, empty if the method is no getter of an association
+     */
+    static Optional<JpaAssociation> ofGetter(JavaMethod method) {
+        var result = of(method);
+        if (result.isEmpty() && method.getRawParameterTypes().isEmpty()) {
+            var name = method.getName();
+            var prefix = name.startsWith("get") ? 3 : name.startsWith("is") ? 2 : -1;
+            if (prefix > 0 && name.length() > prefix) {
+                var property = Character.toLowerCase(name.charAt(prefix)) + name.substring(prefix + 1);
+                for (var field : method.getOwner().getAllFields()) {
+                    if (field.getName().equals(property)) {
+                        return of(field);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isFetch(JavaAnnotation<?> annotation, String fetchType) {
+        return annotation.tryGetExplicitlyDeclaredProperty("fetch")
+                .map(v -> v instanceof JavaEnumConstant constant && fetchType.equals(constant.name()))
+                .orElse(false);
+    }
+
+    /**
+     * Checks whether the association is loaded lazily.
+     *
+     * @return {@literal true} if lazy
+     */
+    boolean isLazy() {
+        return !eager;
+    }
+
+    /**
+     * Checks whether the association has the annotation with the given type.
+     *
+     * @param annotationType The fully qualified name of the annotation type
+     * @return {@literal true} if annotated
+     */
+    boolean isAnnotatedWith(String annotationType) {
+        return member.isAnnotatedWith(annotationType);
+    }
+
+    /**
+     * Returns a short description of the association, like {@literal @OneToMany Field <org.openwms.Order.lines>}.
+     *
+     * @return The description
+     */
+    String describe() {
+        return "@" + annotation.getRawType().getSimpleName() + " " + member.getDescription();
+    }
+}
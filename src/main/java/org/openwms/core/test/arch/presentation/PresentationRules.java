@@ -15,25 +15,62 @@
  */
 package org.openwms.core.test.arch.presentation;
 
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaParameterizedType;
+import com.tngtech.archunit.core.domain.JavaType;
 import com.tngtech.archunit.core.importer.ImportOption;
 import com.tngtech.archunit.junit.AnalyzeClasses;
 import com.tngtech.archunit.junit.ArchTest;
 import com.tngtech.archunit.junit.CacheMode;
+import com.tngtech.archunit.lang.ArchCondition;
 import com.tngtech.archunit.lang.ArchRule;
+import com.tngtech.archunit.lang.ConditionEvents;
+import com.tngtech.archunit.lang.SimpleConditionEvent;
+import jakarta.persistence.Entity;
+import org.openwms.core.test.arch.ArchConstants;
+import org.openwms.core.test.arch.ScanScope;
+import org.openwms.core.test.arch.ScopedArchRule;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
+import static org.openwms.core.test.arch.SpringPredicates.areControllers;
 
 /**
  * A PresentationRules defines rules that target types in the presentation layer.
  *
  * @author Heiko Scherrer
  */
-@AnalyzeClasses(packages = "org.openwms", cacheMode = CacheMode.PER_CLASS, importOptions = {
+@AnalyzeClasses(locations = ScanScope.class, cacheMode = CacheMode.FOREVER, importOptions = {
         ImportOption.DoNotIncludeTests.class,
-        ImportOption.DoNotIncludeJars.class
+        ImportOption.DoNotIncludeJars.class,
+        ArchConstants.RecordFingerprints.class,
+        ScanScope.Filter.class
 })
 public final class PresentationRules {
 
+    private static final Set<String> MAPPING_ANNOTATIONS = Set.of(
+            "org.springframework.web.bind.annotation.RequestMapping",
+            "org.springframework.web.bind.annotation.GetMapping",
+            "org.springframework.web.bind.annotation.PostMapping",
+            "org.springframework.web.bind.annotation.PutMapping",
+            "org.springframework.web.bind.annotation.PatchMapping",
+            "org.springframework.web.bind.annotation.DeleteMapping");
+    private static final String PAGEABLE = "org.springframework.data.domain.Pageable";
+    private static final String PUBLISHER = "org.reactivestreams.Publisher";
+    private static final Pattern EXPORT_NAME = Pattern.compile(".*(export|download).*", Pattern.CASE_INSENSITIVE);
+
     private PresentationRules() {}
 
     /**
@@ -43,10 +80,131 @@ public final class PresentationRules {
      * explicitly marked as {@literal VO (ViewObject)} to express where they belong to.
      */
     @ArchTest
-    public static final ArchRule notUseDTONaming = noClasses()
+    public static final ArchRule notUseDTONaming = ScopedArchRule.classLocal(noClasses()
             .that()
             .resideInAnyPackage("..api..")
             .should()
             .haveSimpleNameEndingWith("DTO")
-            .allowEmptyShould(true);
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that REST endpoints returning a collection or an array accept a Pageable.
+     *
+     * Without paging the size of the response grows with the data, the whole result is loaded, mapped and serialized at
+     * once. This causes latency spikes and GC pressure under load.
+     */
+    @ArchTest
+    public static final ArchRule listEndpointsMustBePaged = ScopedArchRule.classLocal(classes()
+            .that(areControllers)
+            .should(handlerMethods("return collections only with a Pageable parameter", (method, events) -> {
+                var payload = payloadOf(method).toErasure();
+                var unbounded = payload.isAssignableTo(Collection.class) || payload.isArray() && !isByteArray(payload);
+                if (unbounded && method.getRawParameterTypes().stream().noneMatch(p -> p.isAssignableTo(PAGEABLE))) {
+                    events.add(SimpleConditionEvent.violated(method, "%s returns an unbounded %s, accept a Pageable and return a Page or Slice %s"
+                            .formatted(method.getFullName(), payload.getSimpleName(), method.getSourceCodeLocation())));
+                }
+            }))
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that REST endpoints do not return JPA entities, also not as element of a collection or a page.
+     *
+     * Serializing an entity initializes its lazy associations, one select each, and serializes the whole object graph.
+     */
+    @ArchTest
+    public static final ArchRule endpointsMustNotReturnEntities = ScopedArchRule.classLocal(classes()
+            .that(areControllers)
+            .should(handlerMethods("not return JPA entities", (method, events) -> {
+                for (var type : method.getReturnType().getAllInvolvedRawTypes()) {
+                    if (type.isAnnotatedWith(Entity.class)) {
+                        events.add(SimpleConditionEvent.violated(method, "%s returns the entity %s, map it to a view object %s"
+                                .formatted(method.getFullName(), type.getSimpleName(), method.getSourceCodeLocation())));
+                    }
+                }
+            }))
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that REST endpoints do not wait for the result of a Future.
+     *
+     * The request thread is blocked meanwhile. Return the CompletableFuture or a DeferredResult instead, so that Spring MVC
+     * processes the request asynchronously.
+     */
+    @ArchTest
+    public static final ArchRule endpointsMustNotBlockOnFutures = ScopedArchRule.classLocal(classes()
+            .that(areControllers)
+            .should(handlerMethods("not block on Future.get or join", (method, events) -> {
+                for (var call : method.getMethodCallsFromSelf()) {
+                    if (("get".equals(call.getName()) || "join".equals(call.getName())) && call.getTargetOwner().isAssignableTo(Future.class)) {
+                        events.add(SimpleConditionEvent.violated(call, "%s blocks the request thread on %s.%s, return the future instead %s"
+                                .formatted(method.getFullName(), call.getTargetOwner().getSimpleName(), call.getName(), call.getSourceCodeLocation())));
+                    }
+                }
+            }))
+            .allowEmptyShould(true));
+
+    /**
+     * Ensures that REST endpoints that export or download data stream the response with a StreamingResponseBody.
+     *
+     * An endpoint returning a byte array or a ByteArrayResource holds the whole export in memory. An endpoint is considered an
+     * export if it returns binary content or its name contains {@literal export} or {@literal download}. A Resource that is
+     * not held in memory or a reactive Publisher are streamed as well.
+     */
+    @ArchTest
+    public static final ArchRule exportEndpointsMustStream = ScopedArchRule.classLocal(classes()
+            .that(areControllers)
+            .should(handlerMethods("stream exports with a StreamingResponseBody", (method, events) -> {
+                var payload = payloadOf(method).toErasure();
+                var buffered = isByteArray(payload) || payload.isAssignableTo(ByteArrayResource.class);
+                if (buffered || EXPORT_NAME.matcher(method.getName()).matches() && !isStreamed(payload)) {
+                    events.add(SimpleConditionEvent.violated(method, "%s returns the export as %s, write it to a StreamingResponseBody %s"
+                            .formatted(method.getFullName(), payload.getSimpleName(), method.getSourceCodeLocation())));
+                }
+            }))
+            .allowEmptyShould(true));
+
+    private static ArchCondition<JavaClass> handlerMethods(String description, BiConsumer<JavaMethod, ConditionEvents> check) {
+        return new ArchCondition<>("have handler methods that " + description) {
+            @Override
+            public void check(JavaClass item, ConditionEvents events) {
+                for (var method : item.getMethods()) {
+                    if (isHandlerMethod(method)) {
+                        check.accept(method, events);
+                    }
+                }
+            }
+        };
+    }
+
+    private static boolean isHandlerMethod(JavaMethod method) {
+        for (var annotation : method.getAnnotations()) {
+            if (MAPPING_ANNOTATIONS.contains(annotation.getRawType().getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the type of the response body, that is the return type or the type argument of a ResponseEntity.
+     */
+    private static JavaType payloadOf(JavaMethod method) {
+        var type = method.getReturnType();
+        if (type instanceof JavaParameterizedType parameterized && type.toErasure().isAssignableTo(HttpEntity.class)) {
+            List<JavaType> arguments = parameterized.getActualTypeArguments();
+            if (!arguments.isEmpty()) {
+                return arguments.get(0);
+            }
+        }
+        return type;
+    }
+
+    private static boolean isByteArray(JavaClass type) {
+        return type.isArray() && type.getComponentType().isEquivalentTo(byte.class);
+    }
+
+    private static boolean isStreamed(JavaClass type) {
+        return type.isAssignableTo(StreamingResponseBody.class) || type.isAssignableTo(Resource.class) || type.isAssignableTo(PUBLISHER)
+                || type.isEquivalentTo(void.class);
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.lang.ArchRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A CompactViolationStoreTest.
+ *
+ * @author Heiko Scherrer
+ */
+class CompactViolationStoreTest {
+
+    private static final ArchRule RULE = classes().should().bePublic();
+
+    @Test
+    void shall_replace_line_numbers() {
+        assertEquals("Method <a.Foo.bar()> calls method <b.Baz.qux()> in (Foo.java:0)",
+                CompactViolationStore.normalize("Method <a.Foo.bar()> calls method <b.Baz.qux()> in (Foo.java:42)"));
+    }
+
+    @Test
+    void shall_replace_numbers_of_synthetic_names() {
+        assertEquals("Class <a.Foo$0> is not public", CompactViolationStore.normalize("Class <a.Foo$12> is not public"));
+        assertEquals("Method <a.Foo.lambda$bar$0()> in (Foo.java:0)",
+                CompactViolationStore.normalize("Method <a.Foo.lambda$bar$3()> in (Foo.java:7)"));
+    }
+
+    @Test
+    void shall_keep_other_numbers() {
+        assertEquals("Class <a.Foo$Inner2> has 3 fields in (Foo2.java:0)",
+                CompactViolationStore.normalize("Class <a.Foo$Inner2> has 3 fields in (Foo2.java:15)"));
+    }
+
+    @Test
+    void shall_return_the_same_instance_if_unchanged() {
+        var violation = "Class <a.Foo$Inner> is not public in (Foo.java)";
+        assertSame(violation, CompactViolationStore.normalize(violation));
+    }
+
+    @Test
+    void shall_sort_and_deduplicate() {
+        assertEquals(List.of("Class <a.Bar$0>", "Class <a.Foo$0>"),
+                List.copyOf(CompactViolationStore.normalizeAll(List.of("Class <a.Foo$2>", "Class <a.Bar$1>", "Class <a.Foo$1>"))));
+    }
+
+    @Test
+    void shall_save_and_read_normalized_violations(@TempDir Path directory) {
+        var store = new CompactViolationStore(directory.resolve("store"), true);
+        assertFalse(store.contains(RULE));
+        store.save(RULE, List.of("Class <a.Foo$2> is not public", "Multi\nline (Foo.java:3)", "Class <a.Foo$1> is not public"));
+        assertTrue(store.contains(RULE));
+        assertEquals(List.of("Class <a.Foo$0> is not public", "Multi\nline (Foo.java:0)"), store.getViolations(RULE));
+    }
+
+    @Test
+    void shall_fail_without_store_if_creation_is_not_allowed(@TempDir Path directory) {
+        var store = new CompactViolationStore(directory.resolve("missing"), false);
+        assertThrows(IllegalStateException.class, store::checkExists);
+        assertThrows(IllegalStateException.class, () -> store.save(RULE, List.of()));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.Locations;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * A HeaderRulesTest verifies that each {@link HeaderRule} reports the same violations as the ArchUnit rule it replaces.
+ *
+ * @author Heiko Scherrer
+ */
+class HeaderRulesTest {
+
+    private static final String FIXTURE = "org.openwms.core.test.arch.fixture.header";
+    private static final JavaClasses CLASSES = new ClassFileImporter().importPackages(FIXTURE);
+    private static final List<ClassHeader> HEADERS = ClassHeaders.scan(Locations.ofPackage(FIXTURE), List.of());
+
+    @Test
+    void shall_report_the_violations_of_the_replaced_rules() {
+        var suite = ArchRuleSuite.ofLibrary();
+        var rules = HeaderRules.all();
+        for (var i = 0; i < rules.size(); i++) {
+            var name = HeaderRules.REPLACED.get(i);
+            var replaced = suite.getRules().stream().filter(r -> r.name().equals(name)).findFirst().orElseThrow().rule();
+            assertEquals(replaced.getDescription(), rules.get(i).getDescription(), name);
+
+            var expected = replaced.evaluate(CLASSES).getFailureReport().getDetails().stream().sorted().toList();
+            var actual = rules.get(i).evaluate(HEADERS).stream().sorted().toList();
+            assertFalse(expected.isEmpty(), name);
+            assertEquals(expected, actual, name);
+        }
+    }
+
+    @Test
+    void shall_name_classes_like_archunit() {
+        var simpleNames = HEADERS.stream().collect(Collectors.toMap(ClassHeader::name, ClassHeader::simpleName));
+        assertEquals(CLASSES.size(), simpleNames.size());
+        for (var javaClass : CLASSES) {
+            assertEquals(javaClass.getSimpleName(), simpleNames.get(javaClass.getName()), javaClass.getName());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.EngineFilter;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * An ImportSessionTest shows that all rule classes share one import of the classes. Before, each rule class was imported
+ * on its own, N rule classes meant N imports.
+ *
+ * The imports are counted by the imported locations, that the {@link ArchConstants.RecordFingerprints} option of all rule
+ * classes and of the {@link ImportSession} records.
+ *
+ * @author Heiko Scherrer
+ */
+class ImportSessionTest {
+
+    /** A package no other test imports, so that the ArchUnit JUnit engine has not cached its import yet. */
+    private static final String PACKAGE = "org.openwms.core.test.arch.persistence";
+
+    @BeforeEach
+    @AfterEach
+    void reset() {
+        ImportSession.reset();
+    }
+
+    @Test
+    void shall_import_once_for_all_rule_classes() {
+        var key = ArchSettings.PREFIX + ScanScope.PACKAGES_KEY;
+        var previous = System.setProperty(key, PACKAGE);
+        try {
+            var before = RuleMetrics.importedLocations();
+            var summary = new SummaryGeneratingListener();
+            LauncherFactory.create().execute(LauncherDiscoveryRequestBuilder.request()
+                    .selectors(selectClass(GlobalRules.class), selectClass(OnionArchitectureRules.class))
+                    .filters(EngineFilter.includeEngines("archunit"))
+                    .build(), summary);
+            var importedByEngine = RuleMetrics.importedLocations() - before;
+            assertTrue(summary.getSummary().getTestsStartedCount() > 1);
+
+            before = RuleMetrics.importedLocations();
+            ImportSession.classes();
+            var importedOnce = RuleMetrics.importedLocations() - before;
+            assertTrue(importedOnce > 0);
+            assertEquals(importedOnce, importedByEngine);
+        } finally {
+            if (previous == null) {
+                System.clearProperty(key);
+            } else {
+                System.setProperty(key, previous);
+            }
+        }
+    }
+
+    @Test
+    void shall_import_once_when_accessed_concurrently() throws Exception {
+        var before = ImportSession.importCount();
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var tasks = new ArrayList<Callable<Object>>();
+            for (var i = 0; i < 32; i++) {
+                tasks.add(ImportSession::classes);
+            }
+            var first = ImportSession.classes();
+            for (var result : executor.invokeAll(tasks)) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(before + 1, ImportSession.importCount());
+    }
+
+    @Test
+    void shall_import_again_after_reset() {
+        var before = ImportSession.importCount();
+        var first = ImportSession.classes();
+        ImportSession.reset();
+        assertNotSame(first, ImportSession.classes());
+        assertEquals(before + 2, ImportSession.importCount());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.all;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.openwms.core.test.arch.OnionArchitectureRules.LAYERS;
+
+/**
+ * A LayerIndexTest.
+ *
+ * @author Heiko Scherrer
+ */
+class LayerIndexTest {
+
+    private static final JavaClasses CLASSES = new ClassFileImporter().importPackages("org.openwms.core.test.arch.fixture.layers");
+    private static final LayerIndex.Node ADAPTER_A = new LayerIndex.Node("adapter", "a");
+    private static final LayerIndex.Node ADAPTER_B = new LayerIndex.Node("adapter", "b");
+    private static final LayerIndex.Node DOMAIN = new LayerIndex.Node("domain", null);
+    private static final LayerIndex.Node APPLICATION = new LayerIndex.Node("application", null);
+
+    @Test
+    void shall_count_the_dependencies_between_nodes() {
+        var index = LAYERS.indexOf(CLASSES);
+        assertEquals(1, index.count(ADAPTER_A, DOMAIN));
+        assertEquals(1, index.count(ADAPTER_A, ADAPTER_B));
+        assertEquals(1, index.count(ADAPTER_B, DOMAIN));
+        assertEquals(1, index.count(APPLICATION, DOMAIN));
+        assertEquals(1, index.count(LayerIndex.UNASSIGNED, ADAPTER_A));
+        assertEquals(0, index.count(DOMAIN, ADAPTER_A));
+        assertEquals(0, index.count(ADAPTER_B, ADAPTER_A));
+    }
+
+    @Test
+    void shall_list_the_edges_sorted() {
+        var edges = LAYERS.indexOf(CLASSES).getEdges().stream().map(LayerIndex.Edge::toString).toList();
+        assertEquals(List.of(
+                "classes outside of any layer -> slice 'a' of layer 'adapter' (1)",
+                "layer 'application' -> layer 'domain' (1)",
+                "slice 'a' of layer 'adapter' -> layer 'domain' (1)",
+                "slice 'a' of layer 'adapter' -> slice 'b' of layer 'adapter' (1)",
+                "slice 'b' of layer 'adapter' -> layer 'domain' (1)"), edges);
+    }
+
+    @Test
+    void shall_build_the_index_once() {
+        assertSame(LAYERS.indexOf(CLASSES), LAYERS.indexOf(CLASSES));
+    }
+
+    @Test
+    void shall_report_an_access_of_classes_outside_of_any_layer() {
+        var result = all(LAYERS.edges()).should(LayerIndex.mayNotBeAccessedByAnyLayer("adapter")).evaluate(CLASSES);
+        assertTrue(result.hasViolation());
+        var details = result.getFailureReport().getDetails();
+        assertEquals(1, details.size());
+        assertTrue(details.get(0).startsWith("classes outside of any layer depends on slice 'a' of layer 'adapter'"), details.get(0));
+    }
+
+    @Test
+    void shall_allow_accesses_of_allowed_layers() {
+        assertFalse(all(LAYERS.edges()).should(LayerIndex.mayOnlyBeAccessedByLayers("domain", "adapter", "application"))
+                .evaluate(CLASSES).hasViolation());
+        assertTrue(all(LAYERS.edges()).should(LayerIndex.mayOnlyBeAccessedByLayers("domain", "application"))
+                .evaluate(CLASSES).hasViolation());
+    }
+
+    @Test
+    void shall_report_dependencies_between_slices() {
+        var details = all(LAYERS.edges()).should(LayerIndex.slicesNotDependOnEachOther("adapter")).evaluate(CLASSES)
+                .getFailureReport().getDetails();
+        assertEquals(1, details.size());
+        assertTrue(details.get(0).startsWith("slice 'a' of layer 'adapter' depends on slice 'b' of layer 'adapter'"), details.get(0));
+    }
+}
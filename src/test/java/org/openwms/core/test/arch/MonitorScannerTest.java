@@ -0,0 +1,101 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.jupiter.api.Test;
+import org.openwms.core.test.arch.fixture.monitor.Synchronized;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A MonitorScannerTest.
+ *
+ * @author Heiko Scherrer
+ */
+class MonitorScannerTest {
+
+    private static final JavaClass FIXTURE = new ClassFileImporter().importClass(Synchronized.class);
+
+    @Test
+    void shall_find_a_synchronized_method() {
+        var regions = regions("synchronizedMethod");
+        assertEquals(1, regions.size());
+        assertTrue(regions.get(0).synchronizedMethod());
+        assertEquals("this", regions.get(0).lock());
+        assertTrue(invokes(regions.get(0), "inside"));
+    }
+
+    @Test
+    void shall_find_a_synchronized_block() {
+        var regions = regions("synchronizedBlock");
+        assertEquals(1, regions.size());
+        assertFalse(regions.get(0).synchronizedMethod());
+        assertEquals("Synchronized.lock", regions.get(0).lock());
+        assertTrue(invokes(regions.get(0), "inside"));
+        assertFalse(invokes(regions.get(0), "before"));
+        assertFalse(invokes(regions.get(0), "after"));
+    }
+
+    @Test
+    void shall_find_a_synchronized_block_on_a_class() {
+        var regions = regions("synchronizedOnClass");
+        assertEquals(1, regions.size());
+        assertEquals("Synchronized.class", regions.get(0).lock());
+        assertTrue(invokes(regions.get(0), "staticInside"));
+        assertFalse(invokes(regions.get(0), "staticAfter"));
+    }
+
+    @Test
+    void shall_close_a_synchronized_block_within_finally() {
+        var regions = regions("synchronizedInFinally");
+        var outer = regions.get(0);
+        assertEquals("this", outer.lock());
+        assertTrue(invokes(outer, "inside"));
+        assertTrue(invokes(outer, "cleanup"));
+        assertTrue(invokes(outer, "after"));
+        assertFalse(invokes(outer, "before"));
+        // the finally block is compiled once for the normal and once for the exceptional path
+        assertEquals(3, regions.size());
+        for (var inner : regions.subList(1, regions.size())) {
+            assertEquals("Synchronized.lock", inner.lock());
+            assertTrue(invokes(inner, "cleanup"));
+            assertFalse(invokes(inner, "after"));
+            assertFalse(invokes(inner, "before"));
+        }
+    }
+
+    @Test
+    void shall_find_the_enclosing_region_of_a_call() {
+        for (var call : FIXTURE.getMethod("synchronizedBlock").getMethodCallsFromSelf()) {
+            assertEquals("inside".equals(call.getName()), MonitorScanner.enclosingRegion(call).isPresent(), call.getDescription());
+        }
+    }
+
+    private static List<MonitorScanner.SynchronizedRegion> regions(String methodName) {
+        return MonitorScanner.regionsOf(FIXTURE).get(methodName + "()V");
+    }
+
+    private static boolean invokes(MonitorScanner.SynchronizedRegion region, String methodName) {
+        var suffix = '.' + methodName + ':';
+        return region.invocations().stream().anyMatch(i -> i.startsWith(Synchronized.class.getName() + suffix));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A NamingConventionsTest verifies that the conventions match the same names as the regular expressions they replace.
+ *
+ * @author Heiko Scherrer
+ */
+class NamingConventionsTest {
+
+    private static final List<String> NAMES = List.of("", " ", "A", "I", "Ab", "AB", "Foo", "FooBar", "Foo2", "Foo_Bar",
+            "Foo$Bar", "Foo$1", "foo", "_Foo", "$Foo", "package-info", "package-info2", "module-info", "Äpfel", "FooÄ",
+            "IFoo", "IF", "IFO", "I_oo", "IF_", "IF$", "IFoo1", "Ifoo", "iFoo", "IÖo", "II", "IIx", "Foo Bar");
+
+    @Test
+    void shall_match_type_names_like_the_regex() {
+        var regex = Pattern.compile("(package-info|[A-Z][_$a-zA-Z]+)");
+        for (var name : NAMES) {
+            assertEquals(regex.matcher(name).matches(), NamingConventions.TYPE_NAME_WITHOUT_DIGITS.matches(name), name);
+        }
+    }
+
+    @Test
+    void shall_match_i_prefixed_names_like_the_regex() {
+        var regex = Pattern.compile("(I[A-Z][a-z$_]).*");
+        for (var name : NAMES) {
+            assertEquals(regex.matcher(name).matches(), NamingConventions.I_PREFIXED.matches(name), name);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch;
+
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.jupiter.api.Test;
+
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A SliceCycleConditionTest.
+ *
+ * @author Heiko Scherrer
+ */
+class SliceCycleConditionTest {
+
+    private static final String FIXTURE = "org.openwms.core.test.arch.fixture.cycle";
+    private static final JavaClasses CLASSES = new ClassFileImporter().importPackages(FIXTURE);
+
+    /*
+     * The graph 0 -> 1 -> 2 -> 0, 2 -> 3, 3 -> 4 -> 3, 5 in compressed sparse row format.
+     */
+    private static final int[] OFFSETS = {0, 1, 2, 4, 5, 6, 6};
+    private static final int[] TARGETS = {1, 2, 0, 3, 4, 3};
+
+    @Test
+    void shall_find_strongly_connected_components() {
+        var component = SliceCycleCondition.stronglyConnectedComponents(6, OFFSETS, TARGETS);
+        assertEquals(component[0], component[1]);
+        assertEquals(component[0], component[2]);
+        assertEquals(component[3], component[4]);
+        assertNotEquals(component[0], component[3]);
+        assertNotEquals(component[0], component[5]);
+        assertNotEquals(component[3], component[5]);
+    }
+
+    @Test
+    void shall_find_the_shortest_cycle() {
+        var component = SliceCycleCondition.stronglyConnectedComponents(6, OFFSETS, TARGETS);
+        assertArrayEquals(new int[]{0, 1, 2, 0}, SliceCycleCondition.shortestCycle(0, component, OFFSETS, TARGETS));
+        assertArrayEquals(new int[]{3, 4, 3}, SliceCycleCondition.shortestCycle(3, component, OFFSETS, TARGETS));
+    }
+
+    @Test
+    void shall_fail_to_find_a_cycle_of_a_node_without_one() {
+        var component = SliceCycleCondition.stronglyConnectedComponents(6, OFFSETS, TARGETS);
+        assertThrows(IllegalStateException.class, () -> SliceCycleCondition.shortestCycle(5, component, OFFSETS, TARGETS));
+    }
+
+    @Test
+    void shall_report_a_cycle_between_slices() {
+        var result = classes().should(SliceCycleCondition.beFreeOfSliceCycles(FIXTURE + ".(*)..")).evaluate(CLASSES);
+        assertTrue(result.hasViolation());
+        var details = result.getFailureReport().getDetails();
+        assertEquals(1, details.size());
+        assertTrue(details.get(0).startsWith("Cycle detected: Slice a -> Slice b -> Slice a"), details.get(0));
+    }
+
+    @Test
+    void shall_not_report_slices_without_cycle() {
+        var result = classes().that().resideInAnyPackage(FIXTURE + ".a..", FIXTURE + ".c..")
+                .should(SliceCycleCondition.beFreeOfSliceCycles(FIXTURE + ".(*)..")).evaluate(CLASSES);
+        assertFalse(result.hasViolation());
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.fixture.cycle.c;
+
+import org.openwms.core.test.arch.fixture.cycle.a.CycleA;
+
+/**
+ * An Acyclic depends on slice a, but no slice depends on slice c.
+ *
+ * @author Heiko Scherrer
+ */
+public class Acyclic {
+
+    CycleA first;
+}
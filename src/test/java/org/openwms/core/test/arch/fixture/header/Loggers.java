@@ -0,0 +1,32 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.fixture.header;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Loggers declares a valid logger and loggers without each of the required modifiers.
+ *
+ * @author Heiko Scherrer
+ */
+public class Loggers {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Loggers.class);
+    static final Logger SHARED = LoggerFactory.getLogger(Loggers.class);
+    private final Logger instance = LoggerFactory.getLogger(Loggers.class);
+    private static Logger mutable = LoggerFactory.getLogger(Loggers.class);
+}
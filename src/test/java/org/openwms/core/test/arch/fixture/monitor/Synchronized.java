@@ -0,0 +1,72 @@
+/*
+ * Copyright 2005-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openwms.core.test.arch.fixture.monitor;
+
+/**
+ * A Synchronized holds monitors in a synchronized method, in synchronized blocks and in a synchronized block within a
+ * finally block.
+ *
+ * @author Heiko Scherrer
+ */
+public class Synchronized {
+
+    private final Object lock = new Object();
+
+    public synchronized void synchronizedMethod() {
+        inside();
+    }
+
+    public void synchronizedBlock() {
+        before();
+        synchronized (lock) {
+            inside();
+        }
+        after();
+    }
+
+    public static void synchronizedOnClass() {
+        synchronized (Synchronized.class) {
+            staticInside();
+        }
+        staticAfter();
+    }
+
+    public void synchronizedInFinally() {
+        synchronized (this) {
+            try {
+                inside();
+            } finally {
+                synchronized (lock) {
+                    cleanup();
+                }
+                after();
+            }
+        }
+        before();
+    }
+
+    void before() {}
+
+    void inside() {}
+
+    void cleanup() {}
+
+    void after() {}
+
+    static void staticInside() {}
+
+    static void staticAfter() {}
+}